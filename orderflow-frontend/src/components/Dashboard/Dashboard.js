@@ -65,7 +65,7 @@ const Dashboard = () => {
   const fetchStats = async () => {
     try {
       setLoading(true);
-      const [customersRes, productsRes, ordersRes] = await Promise.all([
+      const [customersRes, productsRes, orders] = await Promise.all([
         customerAPI.getAll(),
         productAPI.getAll(),
         orderAPI.getAll(),
@@ -73,7 +73,6 @@ const Dashboard = () => {
 
       const customers = Array.isArray(customersRes.data) ? customersRes.data : [];
       const products = Array.isArray(productsRes.data) ? productsRes.data : [];
-      const orders = Array.isArray(ordersRes.data) ? ordersRes.data : [];
 
       const activeCustomers = customers.filter(c => c.active && !c.deleted).length;
       const lowStock = products.filter(p => !p.deleted && p.quantityInStock <= 10).length;
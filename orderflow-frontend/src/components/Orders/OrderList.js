@@ -136,12 +136,12 @@ const OrderList = () => {
 
   const fetchAll = async () => {
     try {
-      const [ordersRes, customersRes, productsRes] = await Promise.all([
+      const [orders, customersRes, productsRes] = await Promise.all([
         orderAPI.getAll(),
         customerAPI.getAll(),
         productAPI.getAll(),
       ]);
-      setOrders(Array.isArray(ordersRes.data) ? ordersRes.data : []);
+      setOrders(orders);
       setCustomers(Array.isArray(customersRes.data) ? customersRes.data : []);
       setProducts(Array.isArray(productsRes.data) ? productsRes.data : []);
     } catch (e) {
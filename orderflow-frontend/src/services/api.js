@@ -50,7 +50,18 @@ export const productAPI = {
 };
 
 export const orderAPI = {
-  getAll: () => api.get('/orders'),
+  // GET /orders returns keyset pages ({ orders, nextCursor }); this follows
+  // nextCursor to the last page and resolves to the plain list of orders
+  getAll: async (params = {}) => {
+    const orders = [];
+    let cursor;
+    do {
+      const res = await api.get('/orders', { params: { ...params, cursor, limit: 500 } });
+      orders.push(...(res.data?.orders || []));
+      cursor = res.data?.nextCursor;
+    } while (cursor);
+    return orders;
+  },
   getById: (id) => api.get(`/orders/${id}`),
   create: (data) => api.post('/orders', data),
   updateStatus: (id, status) => api.patch(`/orders/${id}/status?status=${status}`),
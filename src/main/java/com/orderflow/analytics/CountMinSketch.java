@@ -0,0 +1,45 @@
+package com.orderflow.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min sketch of 64-bit counters, one row per seed. Estimates never
+ * undercount; they overcount by at most about e/width of the total added, with
+ * high probability. Adds are a single atomic increment per row, so concurrent
+ * writers never block each other.
+ */
+final class CountMinSketch {
+
+    private static final long[] SEEDS = {
+        0x9e3779b97f4a7c15L, 0xbf58476d1ce4e5b9L, 0x94d049bb133111ebL, 0xd6e8feb86659fd93L
+    };
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int mask;
+
+    CountMinSketch(int width) {
+        this.width = Integer.highestOneBit(Math.max(16, width) - 1) << 1;
+        this.mask = this.width - 1;
+        this.counters = new AtomicLongArray(SEEDS.length * this.width);
+    }
+
+    void add(int hash, long count) {
+        for (int row = 0; row < SEEDS.length; row++) {
+            counters.getAndAdd(row * width + index(hash, row), count);
+        }
+    }
+
+    long estimate(int hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + index(hash, row)));
+        }
+        return estimate;
+    }
+
+    private int index(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,70 @@
+package com.orderflow.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * HyperLogLog distinct counter with 2^precision one-byte registers, packed eight
+ * to a long. The standard error is about 1.04 / sqrt(2^precision), 0.8% at the
+ * default precision of 14 (16 KB). A register only ever grows, so concurrent
+ * adds settle with a compare-and-set loop and never block.
+ */
+final class HyperLogLog {
+
+    private final int precision;
+    private final int registerCount;
+    private final AtomicLongArray registers;
+
+    HyperLogLog(int precision) {
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.registers = new AtomicLongArray(registerCount / 8);
+    }
+
+    void add(long value) {
+        long hash = mix(value);
+        int register = (int) (hash >>> (64 - precision));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision) + 1;
+        int index = register >>> 3;
+        int shift = (register & 7) * 8;
+        while (true) {
+            long word = registers.get(index);
+            if (((word >>> shift) & 0xFF) >= rank) {
+                return;
+            }
+            long updated = (word & ~(0xFFL << shift)) | ((long) rank << shift);
+            if (registers.compareAndSet(index, word, updated)) {
+                return;
+            }
+        }
+    }
+
+    long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < registers.length(); i++) {
+            long word = registers.get(i);
+            for (int shift = 0; shift < 64; shift += 8) {
+                int rank = (int) ((word >>> shift) & 0xFF);
+                sum += 1.0 / (1L << rank);
+                if (rank == 0) {
+                    zeros++;
+                }
+            }
+        }
+        double m = registerCount;
+        double estimate = 0.7213 / (1 + 1.079 / m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Linear counting is more accurate while many registers are still empty
+            estimate = m * Math.log(m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    // SplitMix64 finalizer: sequential ids must spread over all registers
+    private static long mix(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
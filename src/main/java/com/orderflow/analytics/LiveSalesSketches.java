@@ -0,0 +1,271 @@
+package com.orderflow.analytics;
+
+import com.orderflow.model.dto.LiveSalesDTO;
+import com.orderflow.model.dto.SkuCountDTO;
+import com.orderflow.model.entity.Order;
+import com.orderflow.model.entity.OrderItem;
+import com.orderflow.model.enums.OrderStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Approximate live order statistics in fixed memory, for dashboards that poll.
+ * <p>
+ * The sliding window (an hour by default) is a ring of slices. Each slice holds a
+ * Count-Min sketch of units ordered per SKU, a small table of heavy-hitter
+ * candidates and a counter per order status reached. A slice is replaced by a
+ * fresh one with a compare-and-set when its time comes round again, and all
+ * updates are atomic adds or compare-and-sets, so request threads never take a
+ * lock. Reading the top SKUs merges the candidates of the live slices, sums their
+ * estimates and keeps the largest in a bounded heap.
+ * <p>
+ * Distinct buying customers (customers with an order confirmed) are counted per
+ * day in a HyperLogLog.
+ * <p>
+ * Everything is recorded after commit and is local to this node. Counts are
+ * estimates: SKU totals can only be overstated, and a SKU can be missed if it
+ * entered a full candidate table late in a slice.
+ */
+@Component
+public class LiveSalesSketches implements MeterBinder {
+
+    private static final int PROBES = 8;
+
+    private final int windowMinutes;
+    private final long sliceMillis;
+    private final int sliceCount;
+    private final int sketchWidth;
+    private final int candidateCount;
+    private final int hllPrecision;
+
+    private final AtomicReferenceArray<Slice> slices;
+    private final AtomicReference<DailyCustomers> customers;
+
+    @Autowired
+    public LiveSalesSketches(@Value("${orderflow.analytics.live.window-minutes:60}") int windowMinutes,
+                             @Value("${orderflow.analytics.live.slices:12}") int sliceCount,
+                             @Value("${orderflow.analytics.live.sketch-width:2048}") int sketchWidth,
+                             @Value("${orderflow.analytics.live.candidates:128}") int candidateCount,
+                             @Value("${orderflow.analytics.live.hll-precision:14}") int hllPrecision) {
+        this.windowMinutes = windowMinutes;
+        this.sliceCount = sliceCount;
+        this.sliceMillis = TimeUnit.MINUTES.toMillis(windowMinutes) / sliceCount;
+        this.sketchWidth = sketchWidth;
+        this.candidateCount = Integer.highestOneBit(Math.max(PROBES, candidateCount) - 1) << 1;
+        this.hllPrecision = hllPrecision;
+        this.slices = new AtomicReferenceArray<>(sliceCount);
+        this.customers = new AtomicReference<>(new DailyCustomers(LocalDate.now(), hllPrecision));
+    }
+
+    /**
+     * Records an order event once the current transaction commits: units per SKU
+     * when the order is placed, and the customer when it is confirmed.
+     */
+    public void orderEvent(Order order, OrderStatus previousStatus) {
+        OrderStatus status = order.getStatus();
+        Map<String, Long> units = new HashMap<>();
+        if (previousStatus == null) {
+            for (OrderItem item : order.getItems()) {
+                units.merge(item.getProductSku(), (long) item.getQuantity(), Long::sum);
+            }
+        }
+        Long customerId = status == OrderStatus.CONFIRMED ? order.getCustomer().getId() : null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(status, units, customerId);
+                }
+            });
+        } else {
+            record(status, units, customerId);
+        }
+    }
+
+    public LiveSalesDTO snapshot(int top) {
+        long epoch = System.currentTimeMillis() / sliceMillis;
+        List<Slice> live = new ArrayList<>(sliceCount);
+        for (int i = 0; i < sliceCount; i++) {
+            Slice slice = slices.get(i);
+            if (slice != null && slice.epoch > epoch - sliceCount && slice.epoch <= epoch) {
+                live.add(slice);
+            }
+        }
+
+        Map<String, Long> estimates = new HashMap<>();
+        for (Slice slice : live) {
+            for (int i = 0; i < slice.candidates.length(); i++) {
+                String sku = slice.candidates.get(i);
+                if (sku != null && !estimates.containsKey(sku)) {
+                    long total = 0;
+                    for (Slice other : live) {
+                        total += other.units.estimate(hash(sku));
+                    }
+                    estimates.put(sku, total);
+                }
+            }
+        }
+        PriorityQueue<SkuCountDTO> heap = new PriorityQueue<>(Comparator.comparingLong(SkuCountDTO::getUnits));
+        estimates.forEach((sku, total) -> {
+            if (heap.size() < top) {
+                heap.add(new SkuCountDTO(sku, total));
+            } else if (total > heap.peek().getUnits()) {
+                heap.poll();
+                heap.add(new SkuCountDTO(sku, total));
+            }
+        });
+        List<SkuCountDTO> topSkus = new ArrayList<>(heap);
+        topSkus.sort(Comparator.comparingLong(SkuCountDTO::getUnits).reversed().thenComparing(SkuCountDTO::getSku));
+
+        Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            long count = 0;
+            for (Slice slice : live) {
+                count += slice.statuses.get(status.ordinal());
+            }
+            ordersByStatus.put(status, count);
+        }
+
+        return new LiveSalesDTO(windowMinutes, topSkus, distinctCustomersToday(), ordersByStatus);
+    }
+
+    public long distinctCustomersToday() {
+        DailyCustomers current = customers.get();
+        return current.day.equals(LocalDate.now()) ? current.sketch.estimate() : 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("orderflow.live.customers.distinct", this, LiveSalesSketches::distinctCustomersToday)
+            .description("Estimated distinct customers with an order confirmed today")
+            .register(registry);
+    }
+
+    private void record(OrderStatus status, Map<String, Long> units, Long customerId) {
+        long epoch = System.currentTimeMillis() / sliceMillis;
+        Slice slice = slice(epoch);
+        if (slice != null) {
+            slice.statuses.incrementAndGet(status.ordinal());
+            units.forEach(slice::addUnits);
+        }
+        if (customerId != null) {
+            dailyCustomers(LocalDate.now()).sketch.add(customerId);
+        }
+    }
+
+    /**
+     * The slice for this epoch, installing a fresh one over an expired slice. Null
+     * if a newer slice already took the position, i.e. this thread fell behind.
+     */
+    private Slice slice(long epoch) {
+        int index = (int) (epoch % sliceCount);
+        while (true) {
+            Slice current = slices.get(index);
+            if (current != null && current.epoch >= epoch) {
+                return current.epoch == epoch ? current : null;
+            }
+            Slice fresh = new Slice(epoch, sketchWidth, candidateCount);
+            if (slices.compareAndSet(index, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private DailyCustomers dailyCustomers(LocalDate today) {
+        while (true) {
+            DailyCustomers current = customers.get();
+            if (!current.day.isBefore(today)) {
+                return current;
+            }
+            DailyCustomers fresh = new DailyCustomers(today, hllPrecision);
+            if (customers.compareAndSet(current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static int hash(String sku) {
+        int h = sku.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Slice {
+        final long epoch;
+        final CountMinSketch units;
+        final AtomicReferenceArray<String> candidates;
+        final AtomicLongArray statuses = new AtomicLongArray(OrderStatus.values().length);
+
+        Slice(long epoch, int sketchWidth, int candidateCount) {
+            this.epoch = epoch;
+            this.units = new CountMinSketch(sketchWidth);
+            this.candidates = new AtomicReferenceArray<>(candidateCount);
+        }
+
+        /**
+         * Adds to the sketch, then makes sure a SKU with a high estimate is a
+         * candidate: it takes an empty slot among its probe positions, or the one
+         * whose SKU has the lowest estimate if that is lower than its own.
+         */
+        void addUnits(String sku, long quantity) {
+            int hash = hash(sku);
+            units.add(hash, quantity);
+            long estimate = units.estimate(hash);
+            int mask = candidates.length() - 1;
+            int victim = -1;
+            long victimEstimate = Long.MAX_VALUE;
+            for (int probe = 0; probe < PROBES; probe++) {
+                int index = (hash + probe) & mask;
+                String candidate = candidates.get(index);
+                if (candidate == null) {
+                    if (candidates.compareAndSet(index, null, sku)) {
+                        return;
+                    }
+                    candidate = candidates.get(index);
+                }
+                if (sku.equals(candidate)) {
+                    return;
+                }
+                long candidateEstimate = units.estimate(hash(candidate));
+                if (candidateEstimate < victimEstimate) {
+                    victim = index;
+                    victimEstimate = candidateEstimate;
+                }
+            }
+            if (estimate > victimEstimate) {
+                String evicted = candidates.get(victim);
+                if (!sku.equals(evicted)) {
+                    candidates.compareAndSet(victim, evicted, sku);
+                }
+            }
+        }
+    }
+
+    private static final class DailyCustomers {
+        final LocalDate day;
+        final HyperLogLog sketch;
+
+        DailyCustomers(LocalDate day, int precision) {
+            this.day = day;
+            this.sketch = new HyperLogLog(precision);
+        }
+    }
+}
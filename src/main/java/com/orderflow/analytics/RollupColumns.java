@@ -0,0 +1,189 @@
+package com.orderflow.analytics;
+
+import com.orderflow.model.enums.RollupDimension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory copy of the most recent days of sales rollups, stored column-wise in
+ * primitive arrays. Dimension keys are interned to dense ordinals. Each day slot
+ * holds the ordinals that had sales that day, sorted, with parallel order, unit
+ * and revenue columns, so a range query is a tight loop over a few arrays per day.
+ * <p>
+ * Days live in a ring indexed by epoch day. A slot still holding an older day
+ * reads as empty, and is reset the first time the new day is written.
+ */
+class RollupColumns {
+
+    interface KeyConsumer {
+        void accept(String key, long orders, long units, long revenueMinor);
+    }
+
+    interface DayConsumer {
+        void accept(LocalDate day, long orders, long units, long revenueMinor);
+    }
+
+    private final int days;
+    private final Dictionary[] dictionaries;
+    private final DayColumns[][] slots;
+
+    RollupColumns(int days) {
+        this.days = days;
+        int dimensions = RollupDimension.values().length;
+        this.dictionaries = new Dictionary[dimensions];
+        this.slots = new DayColumns[dimensions][days];
+        for (int d = 0; d < dimensions; d++) {
+            dictionaries[d] = new Dictionary();
+            for (int i = 0; i < days; i++) {
+                slots[d][i] = new DayColumns();
+            }
+        }
+    }
+
+    /** First day held for a window ending today. */
+    LocalDate firstDay(LocalDate today) {
+        return today.minusDays(days - 1);
+    }
+
+    synchronized void add(RollupDimension dimension, LocalDate day, String key,
+                          long orders, long units, long revenueMinor) {
+        long epochDay = day.toEpochDay();
+        DayColumns columns = slots[dimension.ordinal()][slot(epochDay)];
+        if (columns.epochDay != epochDay) {
+            if (epochDay < columns.epochDay) {
+                // Older than the day already in this slot, so outside the window
+                return;
+            }
+            columns.reset(epochDay);
+        }
+        columns.add(dictionaries[dimension.ordinal()].ordinal(key), orders, units, revenueMinor);
+    }
+
+    synchronized void clear(LocalDate from, LocalDate to) {
+        for (DayColumns[] dimensionSlots : slots) {
+            for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+                DayColumns columns = dimensionSlots[slot(day)];
+                if (columns.epochDay == day) {
+                    columns.reset(day);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sums each key over [from, to] and reports the keys with any activity.
+     */
+    synchronized void sumByKey(RollupDimension dimension, LocalDate from, LocalDate to, KeyConsumer consumer) {
+        Dictionary dictionary = dictionaries[dimension.ordinal()];
+        long[] orders = new long[dictionary.size];
+        long[] units = new long[dictionary.size];
+        long[] revenue = new long[dictionary.size];
+        boolean[] seen = new boolean[dictionary.size];
+        for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+            DayColumns columns = slots[dimension.ordinal()][slot(day)];
+            if (columns.epochDay != day) {
+                continue;
+            }
+            for (int i = 0; i < columns.size; i++) {
+                int ordinal = columns.ordinals[i];
+                orders[ordinal] += columns.orders[i];
+                units[ordinal] += columns.units[i];
+                revenue[ordinal] += columns.revenueMinor[i];
+                seen[ordinal] = true;
+            }
+        }
+        for (int ordinal = 0; ordinal < dictionary.size; ordinal++) {
+            if (seen[ordinal]) {
+                consumer.accept(dictionary.keys[ordinal], orders[ordinal], units[ordinal], revenue[ordinal]);
+            }
+        }
+    }
+
+    /**
+     * Sums all keys per day over [from, to] and reports the days with any activity.
+     */
+    synchronized void sumByDay(RollupDimension dimension, LocalDate from, LocalDate to, DayConsumer consumer) {
+        for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+            DayColumns columns = slots[dimension.ordinal()][slot(day)];
+            if (columns.epochDay != day || columns.size == 0) {
+                continue;
+            }
+            long orders = 0;
+            long units = 0;
+            long revenue = 0;
+            for (int i = 0; i < columns.size; i++) {
+                orders += columns.orders[i];
+                units += columns.units[i];
+                revenue += columns.revenueMinor[i];
+            }
+            consumer.accept(LocalDate.ofEpochDay(day), orders, units, revenue);
+        }
+    }
+
+    private int slot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) days);
+    }
+
+    private static final class Dictionary {
+        final Map<String, Integer> ordinals = new HashMap<>();
+        String[] keys = new String[64];
+        int size;
+
+        int ordinal(String key) {
+            Integer ordinal = ordinals.get(key);
+            if (ordinal != null) {
+                return ordinal;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            keys[size] = key;
+            ordinals.put(key, size);
+            return size++;
+        }
+    }
+
+    private static final class DayColumns {
+        long epochDay = Long.MIN_VALUE;
+        int size;
+        int[] ordinals = new int[0];
+        long[] orders = new long[0];
+        long[] units = new long[0];
+        long[] revenueMinor = new long[0];
+
+        void reset(long day) {
+            epochDay = day;
+            size = 0;
+        }
+
+        void add(int ordinal, long orderDelta, long unitDelta, long revenueDelta) {
+            int i = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (i < 0) {
+                i = -i - 1;
+                if (size == ordinals.length) {
+                    int capacity = Math.max(16, size * 2);
+                    ordinals = Arrays.copyOf(ordinals, capacity);
+                    orders = Arrays.copyOf(orders, capacity);
+                    units = Arrays.copyOf(units, capacity);
+                    revenueMinor = Arrays.copyOf(revenueMinor, capacity);
+                }
+                int tail = size - i;
+                System.arraycopy(ordinals, i, ordinals, i + 1, tail);
+                System.arraycopy(orders, i, orders, i + 1, tail);
+                System.arraycopy(units, i, units, i + 1, tail);
+                System.arraycopy(revenueMinor, i, revenueMinor, i + 1, tail);
+                ordinals[i] = ordinal;
+                orders[i] = 0;
+                units[i] = 0;
+                revenueMinor[i] = 0;
+                size++;
+            }
+            orders[i] += orderDelta;
+            units[i] += unitDelta;
+            revenueMinor[i] += revenueDelta;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.orderflow.analytics;
+
+import com.orderflow.model.dto.SalesDayDTO;
+import com.orderflow.model.dto.SalesTotalsDTO;
+import com.orderflow.model.entity.Order;
+import com.orderflow.model.entity.OrderItem;
+import com.orderflow.model.entity.SalesRollup;
+import com.orderflow.model.enums.OrderStatus;
+import com.orderflow.model.enums.RollupDimension;
+import com.orderflow.repository.OrderItemRepository;
+import com.orderflow.repository.OrderRepository;
+import com.orderflow.repository.SalesRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Sales rollups per day and product, category or customer segment.
+ * <p>
+ * An order counts once it is CONFIRMED and stops counting if it is cancelled or
+ * refunded, always in the bucket of its order date. Each such transition adds or
+ * subtracts the order's contribution once its transaction commits. Contributions
+ * are summed in memory per bucket and written every flush interval with one
+ * update per bucket, in the manner of the customer totals, so confirmations never
+ * contend on rollup rows. Unflushed deltas are lost if the node crashes; a rebuild
+ * of the affected days restores them from the orders.
+ * <p>
+ * The most recent days are also held in {@link RollupColumns}, so range queries
+ * over them never reach the database. Older days are summed from the rollup table.
+ */
+@Component
+public class SalesRollups {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollups.class);
+
+    private static final Set<OrderStatus> COUNTED = EnumSet.of(
+        OrderStatus.CONFIRMED, OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+    private static final String NO_CATEGORY = "none";
+    private static final int REBUILD_CHUNK_DAYS = 31;
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RollupColumns columns;
+
+    private final Map<Bucket, long[]> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SalesRollups(SalesRollupRepository salesRollupRepository,
+                        OrderItemRepository orderItemRepository,
+                        OrderRepository orderRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${orderflow.analytics.cached-days:92}") int cachedDays) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.columns = new RollupColumns(cachedDays);
+    }
+
+    /**
+     * Backfills from the orders on first start, then loads the cached days.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void initialize() {
+        LocalDate today = LocalDate.now();
+        if (salesRollupRepository.count() == 0) {
+            LocalDateTime first = orderRepository.findFirstOrderDate();
+            if (first != null) {
+                rebuild(first.toLocalDate(), today);
+                return;
+            }
+        }
+        load(columns.firstDay(today), today);
+    }
+
+    /**
+     * Records an order's move from previousStatus to its current status, once the
+     * current transaction commits. Transitions that do not change whether the
+     * order counts are ignored.
+     */
+    public void statusChanged(Order order, OrderStatus previousStatus) {
+        int sign = (COUNTED.contains(order.getStatus()) ? 1 : 0)
+            - (previousStatus != null && COUNTED.contains(previousStatus) ? 1 : 0);
+        if (sign == 0) {
+            return;
+        }
+        Map<Bucket, long[]> contribution = contribution(order, sign);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    contribution.forEach(SalesRollups.this::add);
+                }
+            });
+        } else {
+            contribution.forEach(this::add);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Adds pending deltas to their rollup rows in one transaction, inserting rows
+     * for new buckets, then to the cached columns. On failure, including a bucket
+     * inserted concurrently by another node, the deltas are put back and the next
+     * flush updates instead.
+     */
+    @Scheduled(fixedDelayString = "${orderflow.analytics.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Map<Bucket, long[]> batch = new HashMap<>();
+        for (Bucket bucket : pending.keySet()) {
+            long[] delta = pending.remove(bucket);
+            if (delta != null) {
+                batch.put(bucket, delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach((bucket, delta) -> {
+                BigDecimal revenue = BigDecimal.valueOf(delta[2], 2);
+                if (salesRollupRepository.addToBucket(bucket.dimension, bucket.day, bucket.key,
+                        delta[0], delta[1], revenue) == 0) {
+                    salesRollupRepository.save(new SalesRollup(bucket.dimension, bucket.day, bucket.key,
+                        delta[0], delta[1], revenue));
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.error("Sales rollup flush failed, retrying on next interval", e);
+            batch.forEach(this::add);
+            return;
+        }
+        batch.forEach((bucket, delta) ->
+            columns.add(bucket.dimension, bucket.day, bucket.key, delta[0], delta[1], delta[2]));
+    }
+
+    /**
+     * Recomputes the rollups for [from, to] from the orders, a month per
+     * transaction. An order confirmed while its day is being rebuilt can be counted
+     * twice, so rebuild past days or quiet periods.
+     */
+    public synchronized void rebuild(LocalDate from, LocalDate to) {
+        flush();
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(REBUILD_CHUNK_DAYS)) {
+            LocalDate end = start.plusDays(REBUILD_CHUNK_DAYS - 1).isAfter(to) ? to : start.plusDays(REBUILD_CHUNK_DAYS - 1);
+            LocalDate chunkStart = start;
+            transactionTemplate.executeWithoutResult(status -> {
+                salesRollupRepository.deleteByBucketDateBetween(chunkStart, end);
+                LocalDateTime lower = chunkStart.atStartOfDay();
+                LocalDateTime upper = end.plusDays(1).atStartOfDay();
+                List<SalesRollup> rollups = new ArrayList<>();
+                addFacts(rollups, RollupDimension.PRODUCT, orderItemRepository.sumSalesByProduct(COUNTED, lower, upper));
+                addFacts(rollups, RollupDimension.CATEGORY, orderItemRepository.sumSalesByCategory(COUNTED, lower, upper));
+                addFacts(rollups, RollupDimension.SEGMENT, orderItemRepository.sumSalesBySegment(COUNTED, lower, upper));
+                salesRollupRepository.saveAll(rollups);
+            });
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate firstCached = columns.firstDay(today);
+        LocalDate loadFrom = from.isBefore(firstCached) ? firstCached : from;
+        LocalDate loadTo = to.isAfter(today) ? today : to;
+        if (!loadFrom.isAfter(loadTo)) {
+            load(loadFrom, loadTo);
+        }
+        log.info("Rebuilt sales rollups from {} to {}", from, to);
+    }
+
+    /**
+     * Per-key totals over [from, to], merging cached days with rollup rows for
+     * any older part of the range.
+     */
+    public List<SalesTotalsDTO> totalsByKey(RollupDimension dimension, LocalDate from, LocalDate to) {
+        Map<String, long[]> totals = new HashMap<>();
+        LocalDate firstCached = columns.firstDay(LocalDate.now());
+        if (from.isBefore(firstCached)) {
+            LocalDate end = to.isBefore(firstCached) ? to : firstCached.minusDays(1);
+            for (SalesRollupRepository.BucketTotals row : inTransaction(() -> salesRollupRepository.sumByKey(dimension, from, end))) {
+                merge(totals, row.getDimensionKey(), row.getOrderCount(), row.getUnits(), toMinor(row.getRevenue()));
+            }
+        }
+        if (!to.isBefore(firstCached)) {
+            LocalDate start = from.isBefore(firstCached) ? firstCached : from;
+            columns.sumByKey(dimension, start, to, (key, orders, units, revenue) -> merge(totals, key, orders, units, revenue));
+        }
+        List<SalesTotalsDTO> result = new ArrayList<>(totals.size());
+        totals.forEach((key, sums) -> result.add(new SalesTotalsDTO(key, sums[0], sums[1], BigDecimal.valueOf(sums[2], 2))));
+        return result;
+    }
+
+    /**
+     * Totals per day over [from, to] across all keys of the dimension, in date order.
+     */
+    public List<SalesDayDTO> totalsByDay(RollupDimension dimension, LocalDate from, LocalDate to) {
+        Map<LocalDate, long[]> totals = new TreeMap<>();
+        LocalDate firstCached = columns.firstDay(LocalDate.now());
+        if (from.isBefore(firstCached)) {
+            LocalDate end = to.isBefore(firstCached) ? to : firstCached.minusDays(1);
+            for (SalesRollupRepository.BucketTotals row : inTransaction(() -> salesRollupRepository.sumByDay(dimension, from, end))) {
+                merge(totals, row.getBucketDate(), row.getOrderCount(), row.getUnits(), toMinor(row.getRevenue()));
+            }
+        }
+        if (!to.isBefore(firstCached)) {
+            LocalDate start = from.isBefore(firstCached) ? firstCached : from;
+            columns.sumByDay(dimension, start, to, (day, orders, units, revenue) -> merge(totals, day, orders, units, revenue));
+        }
+        List<SalesDayDTO> result = new ArrayList<>(totals.size());
+        totals.forEach((day, sums) -> result.add(new SalesDayDTO(day, sums[0], sums[1], BigDecimal.valueOf(sums[2], 2))));
+        return result;
+    }
+
+    private void load(LocalDate from, LocalDate to) {
+        List<SalesRollup> rollups = inTransaction(() -> salesRollupRepository.findByBucketDateBetween(from, to));
+        columns.clear(from, to);
+        for (SalesRollup rollup : rollups) {
+            columns.add(rollup.getDimension(), rollup.getBucketDate(), rollup.getDimensionKey(),
+                rollup.getOrderCount(), rollup.getUnits(), toMinor(rollup.getRevenue()));
+        }
+    }
+
+    private <T> T inTransaction(Supplier<T> query) {
+        return transactionTemplate.execute(status -> query.get());
+    }
+
+    private static void addFacts(List<SalesRollup> rollups, RollupDimension dimension,
+                                 List<OrderItemRepository.SalesFact> facts) {
+        for (OrderItemRepository.SalesFact fact : facts) {
+            rollups.add(new SalesRollup(dimension, fact.getBucketDate(), fact.getDimensionKey(),
+                fact.getOrderCount(), fact.getUnits(), fact.getRevenue()));
+        }
+    }
+
+    /**
+     * Splits one order into its bucket deltas: per product and per category each
+     * counts the order once however many lines it has there.
+     */
+    private static Map<Bucket, long[]> contribution(Order order, int sign) {
+        LocalDate day = order.getOrderDate().toLocalDate();
+        Map<Bucket, long[]> deltas = new HashMap<>();
+        long orderUnits = 0;
+        long orderRevenue = 0;
+        for (OrderItem item : order.getItems()) {
+            long units = item.getQuantity();
+            long revenue = toMinor(item.getLineTotal());
+            addLine(deltas, new Bucket(RollupDimension.PRODUCT, day, String.valueOf(item.getProduct().getId())), units, revenue);
+            addLine(deltas, new Bucket(RollupDimension.CATEGORY, day, categoryKey(item)), units, revenue);
+            orderUnits += units;
+            orderRevenue += revenue;
+        }
+        String segment = order.getCustomerSegment() != null
+            ? order.getCustomerSegment().name()
+            : order.getCustomer().getSegment().name();
+        deltas.put(new Bucket(RollupDimension.SEGMENT, day, segment), new long[] {1, orderUnits, orderRevenue});
+        deltas.values().forEach(delta -> {
+            delta[0] *= sign;
+            delta[1] *= sign;
+            delta[2] *= sign;
+        });
+        return deltas;
+    }
+
+    private static void addLine(Map<Bucket, long[]> deltas, Bucket bucket, long units, long revenue) {
+        long[] delta = deltas.computeIfAbsent(bucket, b -> new long[] {1, 0, 0});
+        delta[1] += units;
+        delta[2] += revenue;
+    }
+
+    private static String categoryKey(OrderItem item) {
+        if (item.getCategoryId() != null) {
+            return String.valueOf(item.getCategoryId());
+        }
+        // Lines ordered before the category was recorded on the item
+        return item.getProduct().getCategory() != null
+            ? String.valueOf(item.getProduct().getCategory().getId())
+            : NO_CATEGORY;
+    }
+
+    private void add(Bucket bucket, long[] delta) {
+        pending.merge(bucket, delta.clone(), (current, more) -> {
+            current[0] += more[0];
+            current[1] += more[1];
+            current[2] += more[2];
+            return current;
+        });
+    }
+
+    private static <K> void merge(Map<K, long[]> totals, K key, long orders, long units, long revenue) {
+        long[] sums = totals.computeIfAbsent(key, k -> new long[3]);
+        sums[0] += orders;
+        sums[1] += units;
+        sums[2] += revenue;
+    }
+
+    private static long toMinor(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static final class Bucket {
+        final RollupDimension dimension;
+        final LocalDate day;
+        final String key;
+
+        Bucket(RollupDimension dimension, LocalDate day, String key) {
+            this.dimension = dimension;
+            this.day = day;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Bucket)) {
+                return false;
+            }
+            Bucket other = (Bucket) o;
+            return dimension == other.dimension && day.equals(other.day) && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dimension, day, key);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.orderflow.cache;
+
+import com.orderflow.model.entity.Category;
+import com.orderflow.model.entity.Product;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Near cache for product and category lookups by id, SKU and code. SKUs and
+ * category codes never change once assigned, so they map to ids in small caches
+ * of their own and only the id entries need invalidating.
+ * <p>
+ * Entities are loaded through a short-lived EntityManager of their own, so the
+ * cached instances are detached snapshots that no persistence context will
+ * change. Callers must treat them as read-only and load managed entities through
+ * the repositories to modify them. Write paths invalidate an entry both at once
+ * and after commit. Stock counters changed by order placement do not invalidate,
+ * so they can lag by up to the TTL.
+ * <p>
+ * Hit, miss and eviction counts, sizes and weights are published as
+ * orderflow.cache.* metrics, tagged by cache.
+ */
+@Component
+public class CatalogCache implements MeterBinder {
+
+    private static final int ENTRY_OVERHEAD = 160;
+    private static final int MAPPING_WEIGHT = 64;
+    private static final int AVERAGE_ENTRY_WEIGHT = 512;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final NearCache<Long, Product> products;
+    private final NearCache<String, Long> productIdsBySku;
+    private final NearCache<Long, Category> categories;
+    private final NearCache<String, Long> categoryIdsByCode;
+
+    @Autowired
+    public CatalogCache(EntityManagerFactory entityManagerFactory,
+                        @Value("${orderflow.cache.ttl-seconds:30}") long ttlSeconds,
+                        @Value("${orderflow.cache.products.max-weight-mb:32}") long productsMaxMb,
+                        @Value("${orderflow.cache.categories.max-weight-mb:4}") long categoriesMaxMb) {
+        this.entityManagerFactory = entityManagerFactory;
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        long productsMax = productsMaxMb * 1024 * 1024;
+        long categoriesMax = categoriesMaxMb * 1024 * 1024;
+        this.products = new NearCache<>("products", productsMax, expectedEntries(productsMax, AVERAGE_ENTRY_WEIGHT),
+            ttlNanos, CatalogCache::weigh);
+        this.productIdsBySku = new NearCache<>("product-skus", productsMax / 8, expectedEntries(productsMax / 8, MAPPING_WEIGHT),
+            ttlNanos, id -> MAPPING_WEIGHT);
+        this.categories = new NearCache<>("categories", categoriesMax, expectedEntries(categoriesMax, AVERAGE_ENTRY_WEIGHT),
+            ttlNanos, CatalogCache::weigh);
+        this.categoryIdsByCode = new NearCache<>("category-codes", categoriesMax / 8, expectedEntries(categoriesMax / 8, MAPPING_WEIGHT),
+            ttlNanos, id -> MAPPING_WEIGHT);
+    }
+
+    public Optional<Product> findProduct(Long id) {
+        return Optional.ofNullable(products.get(id, key -> load(em -> em.find(Product.class, key))));
+    }
+
+    public Optional<Product> findProductBySku(String sku) {
+        Product[] loaded = new Product[1];
+        Long id = productIdsBySku.get(sku, key -> {
+            loaded[0] = load(em -> single(em.createQuery("SELECT p FROM Product p WHERE p.sku = :sku", Product.class)
+                .setParameter("sku", key).getResultList()));
+            return loaded[0] == null ? null : loaded[0].getId();
+        });
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(products.get(id, key -> loaded[0] != null ? loaded[0] : load(em -> em.find(Product.class, key))));
+    }
+
+    public Optional<Category> findCategory(Long id) {
+        return Optional.ofNullable(categories.get(id, key -> load(em -> em.find(Category.class, key))));
+    }
+
+    public Optional<Category> findCategoryByCode(String code) {
+        Category[] loaded = new Category[1];
+        Long id = categoryIdsByCode.get(code, key -> {
+            loaded[0] = load(em -> single(em.createQuery("SELECT c FROM Category c WHERE c.code = :code", Category.class)
+                .setParameter("code", key).getResultList()));
+            return loaded[0] == null ? null : loaded[0].getId();
+        });
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(categories.get(id, key -> loaded[0] != null ? loaded[0] : load(em -> em.find(Category.class, key))));
+    }
+
+    public void invalidateProduct(Long id) {
+        invalidate(products, id);
+    }
+
+    /**
+     * Invalidates a batch of products, with a single after-commit callback for the
+     * whole batch.
+     */
+    public void invalidateProducts(Collection<Long> ids) {
+        List<Long> keys = List.copyOf(ids);
+        keys.forEach(products::invalidate);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    keys.forEach(products::invalidate);
+                }
+            });
+        }
+    }
+
+    public void invalidateCategory(Long id) {
+        invalidate(categories, id);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (NearCache<?, ?> cache : List.of(products, productIdsBySku, categories, categoryIdsByCode)) {
+            FunctionCounter.builder("orderflow.cache.gets", cache, NearCache::hitCount)
+                .tag("cache", cache.getName()).tag("result", "hit").register(registry);
+            FunctionCounter.builder("orderflow.cache.gets", cache, NearCache::missCount)
+                .tag("cache", cache.getName()).tag("result", "miss").register(registry);
+            FunctionCounter.builder("orderflow.cache.evictions", cache, NearCache::evictionCount)
+                .tag("cache", cache.getName()).register(registry);
+            Gauge.builder("orderflow.cache.size", cache, NearCache::size)
+                .tag("cache", cache.getName()).register(registry);
+            Gauge.builder("orderflow.cache.weight", cache, NearCache::weight)
+                .tag("cache", cache.getName()).baseUnit("bytes").register(registry);
+        }
+    }
+
+    private static <K> void invalidate(NearCache<K, ?> cache, K key) {
+        cache.invalidate(key);
+        // A reader may have reloaded the pre-commit row in the meantime
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(key);
+                }
+            });
+        }
+    }
+
+    private <T> T load(Function<EntityManager, T> query) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return query.apply(entityManager);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static <T> T single(List<T> results) {
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    private static int weigh(Product product) {
+        return ENTRY_OVERHEAD + 2 * (length(product.getSku()) + length(product.getName()) + length(product.getDescription()));
+    }
+
+    private static int weigh(Category category) {
+        return ENTRY_OVERHEAD + 2 * (length(category.getCode()) + length(category.getName()) + length(category.getDescription()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static int expectedEntries(long maximumWeight, int entryWeight) {
+        return (int) Math.min(Integer.MAX_VALUE, maximumWeight / entryWeight);
+    }
+}
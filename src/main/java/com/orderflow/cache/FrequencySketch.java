@@ -0,0 +1,70 @@
+package com.orderflow.cache;
+
+/**
+ * Count-Min sketch of 4-bit counters estimating how often each key was requested
+ * recently. Each long holds 16 counters and a key maps to one counter in each of
+ * four rows. Once the number of increments reaches ten times the expected number
+ * of entries, every counter is halved so that old popularity fades.
+ * Not thread-safe; the owning cache serializes access.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedEntries) {
+        int size = Math.max(16, Math.min(expectedEntries, 1 << 24));
+        table = new long[Integer.highestOneBit(size - 1) << 1];
+        mask = table.length - 1;
+        sampleSize = 10 * size;
+    }
+
+    int frequency(int hash) {
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long h = rehash(hash, row);
+            frequency = Math.min(frequency, (int) (table[index(h)] >>> shift(h)) & 0xF);
+        }
+        return frequency;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long h = rehash(hash, row);
+            int index = index(h);
+            int shift = shift(h);
+            if (((table[index] >>> shift) & 0xF) != 0xF) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions /= 2;
+        }
+    }
+
+    private static long rehash(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        return h ^ (h >>> 32);
+    }
+
+    private int index(long h) {
+        return (int) h & mask;
+    }
+
+    /** Which of the 16 counters in the long, as a bit offset. */
+    private static int shift(long h) {
+        return (int) (h >>> 40 & 0xF) << 2;
+    }
+}
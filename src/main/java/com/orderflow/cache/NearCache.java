@@ -0,0 +1,273 @@
+package com.orderflow.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded, weight-aware cache with W-TinyLFU admission and expire-after-write.
+ * <p>
+ * New entries enter a small LRU window (1% of the maximum weight). Entries pushed
+ * out of the window only join the main space if a frequency sketch says they were
+ * requested more often than the main space's eviction victim, so one-off lookups
+ * cannot flush the hot set. The main space is a segmented LRU: entries start on
+ * probation and are promoted to the protected segment (80% of main) when hit again.
+ * <p>
+ * Loads run outside the lock. Every invalidation bumps a generation counter, and
+ * a load only fills the cache if no invalidation happened while it ran, so a load
+ * that raced a write cannot put the old value back.
+ */
+public class NearCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    // Unlinked from every queue; a node still referenced by a caller's loop may be seen again
+    private static final int REMOVED = -1;
+
+    private final String name;
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final long ttlNanos;
+    private final ToIntFunction<V> weigher;
+    private final FrequencySketch sketch;
+
+    private final Map<K, Node<K, V>> data = new HashMap<>();
+    private final AccessQueue<K, V> window = new AccessQueue<>();
+    private final AccessQueue<K, V> probation = new AccessQueue<>();
+    private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+    private long windowWeight;
+    private long protectedWeight;
+    private long totalWeight;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public NearCache(String name, long maximumWeight, int expectedEntries, long ttlNanos, ToIntFunction<V> weigher) {
+        this.name = name;
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.protectedMaximum = (maximumWeight - windowMaximum) * 8 / 10;
+        this.ttlNanos = ttlNanos;
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    /**
+     * Returns the cached value, or loads, caches and returns it. A null from the
+     * loader is returned but not cached.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long stamp;
+        synchronized (this) {
+            sketch.increment(spread(key));
+            Node<K, V> node = data.get(key);
+            if (node != null) {
+                if (System.nanoTime() - node.writtenAt < ttlNanos) {
+                    onHit(node);
+                    hits.increment();
+                    return node.value;
+                }
+                remove(node);
+            }
+            stamp = generation;
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == stamp) {
+                    put(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            remove(node);
+        }
+    }
+
+    public String getName() { return name; }
+    public long hitCount() { return hits.sum(); }
+    public long missCount() { return misses.sum(); }
+    public long evictionCount() { return evictions.sum(); }
+    public synchronized int size() { return data.size(); }
+    public synchronized long weight() { return totalWeight; }
+
+    private void put(K key, V value) {
+        int weight = weigher.applyAsInt(value);
+        Node<K, V> existing = data.get(key);
+        if (existing != null) {
+            remove(existing);
+        }
+        if (weight > maximumWeight) {
+            return;
+        }
+        Node<K, V> node = new Node<>(key, value, weight, System.nanoTime());
+        data.put(key, node);
+        node.queue = WINDOW;
+        window.addLast(node);
+        windowWeight += weight;
+        totalWeight += weight;
+        evict();
+    }
+
+    private void onHit(Node<K, V> node) {
+        if (node.queue == WINDOW) {
+            window.moveToLast(node);
+        } else if (node.queue == PROBATION) {
+            probation.remove(node);
+            node.queue = PROTECTED;
+            protectedQueue.addLast(node);
+            protectedWeight += node.weight;
+            while (protectedWeight > protectedMaximum) {
+                Node<K, V> demoted = protectedQueue.pollFirst();
+                protectedWeight -= demoted.weight;
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            protectedQueue.moveToLast(node);
+        }
+    }
+
+    /**
+     * Moves window overflow into the main space, where each candidate has to beat
+     * the main space's least recently used entry on frequency to stay.
+     */
+    private void evict() {
+        while (windowWeight > windowMaximum) {
+            Node<K, V> candidate = window.pollFirst();
+            windowWeight -= candidate.weight;
+            candidate.queue = PROBATION;
+            probation.addLast(candidate);
+
+            while (totalWeight > maximumWeight && candidate.queue == PROBATION) {
+                Node<K, V> victim = probation.peekFirst() != candidate ? probation.peekFirst() : protectedQueue.peekFirst();
+                if (victim == null) {
+                    evict(candidate);
+                } else if (sketch.frequency(spread(candidate.key)) > sketch.frequency(spread(victim.key))) {
+                    evict(victim);
+                } else {
+                    evict(candidate);
+                }
+            }
+        }
+        // Weight left over by a large window entry
+        while (totalWeight > maximumWeight) {
+            Node<K, V> victim = probation.peekFirst();
+            if (victim == null) {
+                victim = protectedQueue.peekFirst() != null ? protectedQueue.peekFirst() : window.peekFirst();
+            }
+            evict(victim);
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        remove(node);
+        evictions.increment();
+    }
+
+    private void remove(Node<K, V> node) {
+        if (node.queue == REMOVED) {
+            return;
+        }
+        data.remove(node.key);
+        totalWeight -= node.weight;
+        if (node.queue == WINDOW) {
+            window.remove(node);
+            windowWeight -= node.weight;
+        } else if (node.queue == PROBATION) {
+            probation.remove(node);
+        } else {
+            protectedQueue.remove(node);
+            protectedWeight -= node.weight;
+        }
+        node.queue = REMOVED;
+    }
+
+    private static int spread(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final int weight;
+        final long writtenAt;
+        int queue;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value, int weight, long writtenAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writtenAt = writtenAt;
+        }
+    }
+
+    /**
+     * Intrusive doubly-linked LRU list: least recently used first.
+     */
+    private static final class AccessQueue<K, V> {
+        Node<K, V> head;
+        Node<K, V> tail;
+
+        void addLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        Node<K, V> peekFirst() {
+            return head;
+        }
+
+        Node<K, V> pollFirst() {
+            Node<K, V> node = head;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.orderflow.catalog;
+
+import com.orderflow.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Where each field sits in the rows of one catalog file, read from its header.
+ * Header names are matched case-insensitively and may come in any order. Fields
+ * the header leaves out are left unchanged on existing products.
+ */
+final class CatalogColumns {
+
+    private final Map<CatalogField, Integer> positions = new EnumMap<>(CatalogField.class);
+    private final List<CatalogField> present = new ArrayList<>();
+
+    CatalogColumns(List<String> header) {
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            CatalogField field = Arrays.stream(CatalogField.values())
+                .filter(f -> f.header.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unknown catalog column: " + name));
+            if (positions.put(field, i) != null) {
+                throw new BadRequestException("Duplicate catalog column: " + name);
+            }
+        }
+        for (CatalogField field : CatalogField.values()) {
+            if (positions.containsKey(field)) {
+                present.add(field);
+            } else if (field.required) {
+                throw new BadRequestException("Catalog file has no " + field.header + " column");
+            }
+        }
+    }
+
+    /** Fields in the file, in declaration order. */
+    List<CatalogField> present() {
+        return present;
+    }
+
+    boolean has(CatalogField field) {
+        return positions.containsKey(field);
+    }
+
+    /** The raw value of the field in a row, or null if the file or row has no such cell. */
+    String value(List<String> row, CatalogField field) {
+        Integer position = positions.get(field);
+        return position == null || position >= row.size() ? null : row.get(position);
+    }
+}
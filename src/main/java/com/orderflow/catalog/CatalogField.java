@@ -0,0 +1,33 @@
+package com.orderflow.catalog;
+
+import java.sql.Types;
+
+/**
+ * The catalog file columns the import understands, with the product column each
+ * one is written to and the value a new product gets when the file leaves it out.
+ */
+enum CatalogField {
+    SKU("sku", "sku", Types.VARCHAR, true, null),
+    NAME("name", "name", Types.VARCHAR, true, null),
+    DESCRIPTION("description", "description", Types.VARCHAR, false, null),
+    PRICE("price", "price", Types.NUMERIC, true, null),
+    COST_PRICE("cost_price", "cost_price", Types.NUMERIC, false, null),
+    QUANTITY_IN_STOCK("quantity_in_stock", "quantity_in_stock", Types.INTEGER, false, 0),
+    MIN_STOCK_LEVEL("min_stock_level", "min_stock_level", Types.INTEGER, false, null),
+    ACTIVE("active", "active", Types.BOOLEAN, false, Boolean.TRUE),
+    CATEGORY_CODE("category_code", "category_id", Types.BIGINT, false, null);
+
+    final String header;
+    final String column;
+    final int sqlType;
+    final boolean required;
+    final Object defaultValue;
+
+    CatalogField(String header, String column, int sqlType, boolean required, Object defaultValue) {
+        this.header = header;
+        this.column = column;
+        this.sqlType = sqlType;
+        this.required = required;
+        this.defaultValue = defaultValue;
+    }
+}
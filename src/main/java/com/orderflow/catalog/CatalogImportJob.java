@@ -0,0 +1,107 @@
+package com.orderflow.catalog;
+
+import com.orderflow.model.dto.ImportRowErrorDTO;
+import com.orderflow.model.enums.ImportStatus;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One catalog import and its progress. Counters are updated by all the workers of
+ * the import at once. Only the first max-errors row errors are kept; the failed
+ * count covers all of them.
+ */
+public class CatalogImportJob {
+
+    private final String id;
+    private final String fileName;
+    private final Path file;
+    private final long sizeBytes;
+    private final int maxErrors;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile ImportStatus status = ImportStatus.QUEUED;
+    private volatile String error;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+
+    private final AtomicLong bytesProcessed = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicInteger errorCount = new AtomicInteger();
+    private final Queue<ImportRowErrorDTO> errors = new ConcurrentLinkedQueue<>();
+
+    public CatalogImportJob(String id, String fileName, Path file, long sizeBytes, int maxErrors) {
+        this.id = id;
+        this.fileName = fileName;
+        this.file = file;
+        this.sizeBytes = sizeBytes;
+        this.maxErrors = maxErrors;
+    }
+
+    public void started() {
+        startedAt = LocalDateTime.now();
+        status = ImportStatus.RUNNING;
+    }
+
+    public void completed() {
+        completedAt = LocalDateTime.now();
+        status = ImportStatus.COMPLETED;
+    }
+
+    public void failed(String error) {
+        this.error = error;
+        completedAt = LocalDateTime.now();
+        status = ImportStatus.FAILED;
+    }
+
+    void processed(long bytes, long rows) {
+        bytesProcessed.addAndGet(bytes);
+        rowsRead.addAndGet(rows);
+    }
+
+    void written(int insertedRows, int updatedRows) {
+        inserted.addAndGet(insertedRows);
+        updated.addAndGet(updatedRows);
+    }
+
+    void rowFailed(long line, String sku, String message) {
+        failed.incrementAndGet();
+        if (errorCount.getAndIncrement() < maxErrors) {
+            errors.add(new ImportRowErrorDTO(line, sku, message));
+        }
+    }
+
+    public boolean isFinished() {
+        return status == ImportStatus.COMPLETED || status == ImportStatus.FAILED;
+    }
+
+    public List<ImportRowErrorDTO> getErrors() {
+        List<ImportRowErrorDTO> sorted = new ArrayList<>(errors);
+        sorted.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+        return sorted;
+    }
+
+    public String getId() { return id; }
+    public String getFileName() { return fileName; }
+    public Path getFile() { return file; }
+    public long getSizeBytes() { return sizeBytes; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public ImportStatus getStatus() { return status; }
+    public String getError() { return error; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public long getBytesProcessed() { return bytesProcessed.get(); }
+    public long getRowsRead() { return rowsRead.get(); }
+    public long getInserted() { return inserted.get(); }
+    public long getUpdated() { return updated.get(); }
+    public long getFailed() { return failed.get(); }
+}
@@ -0,0 +1,238 @@
+package com.orderflow.catalog;
+
+import com.orderflow.exception.BadRequestException;
+import com.orderflow.repository.CategoryRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports a catalog CSV file into products. The file is memory-mapped and cut
+ * into chunks at line breaks, and the chunks are worked on in parallel by a fixed
+ * pool: each worker parses its lines in place, validates them, resolves category
+ * codes against a map loaded once per import, and upserts the valid rows in
+ * batches. A first, cheap pass counts the lines of every chunk so that errors can
+ * name the line they came from.
+ * <p>
+ * Rows are independent: a bad row is recorded on the job and skipped, and a batch
+ * that cannot be written fails only its own rows. The order in which chunks are
+ * written is not defined, so a SKU repeated in different parts of the file may
+ * end up with either row.
+ */
+@Component
+public class CatalogImporter {
+
+    private final CategoryRepository categoryRepository;
+    private final ProductUpserter productUpserter;
+    private final long chunkBytes;
+    private final int batchSize;
+    private final ThreadPoolExecutor workers;
+
+    @Autowired
+    CatalogImporter(CategoryRepository categoryRepository,
+                    ProductUpserter productUpserter,
+                    @Value("${orderflow.catalog.import.threads:4}") int threads,
+                    @Value("${orderflow.catalog.import.chunk-size-mb:8}") int chunkSizeMb,
+                    @Value("${orderflow.catalog.import.batch-size:500}") int batchSize) {
+        this.categoryRepository = categoryRepository;
+        this.productUpserter = productUpserter;
+        this.chunkBytes = (long) chunkSizeMb * 1024 * 1024;
+        this.batchSize = batchSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "catalog-import-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Rejects a file whose header is missing, names unknown columns or lacks a
+     * required one.
+     */
+    public void checkHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            header(channel, nextLineStart(channel, 0, channel.size()));
+        }
+    }
+
+    public void run(CatalogImportJob job) throws IOException, InterruptedException, ExecutionException {
+        try (FileChannel channel = FileChannel.open(job.getFile(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long headerEnd = nextLineStart(channel, 0, size);
+            CatalogColumns columns = header(channel, headerEnd);
+            job.processed(headerEnd, 0);
+
+            List<Long> boundaries = new ArrayList<>();
+            boundaries.add(headerEnd);
+            for (long start = headerEnd; start < size; ) {
+                start = nextLineStart(channel, Math.min(start + chunkBytes, size) - 1, size);
+                boundaries.add(start);
+            }
+            Map<String, Long> categoryIds = new HashMap<>();
+            categoryRepository.findAllCodeLinks().forEach(link -> categoryIds.put(link.getCode(), link.getId()));
+
+            List<Callable<Long>> counts = new ArrayList<>();
+            for (int i = 0; i + 1 < boundaries.size(); i++) {
+                long start = boundaries.get(i);
+                long end = boundaries.get(i + 1);
+                counts.add(() -> countLines(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start)));
+            }
+            List<Long> lineCounts = runAll(counts);
+
+            List<Callable<Void>> imports = new ArrayList<>();
+            long firstLine = 2;
+            for (int i = 0; i < lineCounts.size(); i++) {
+                long start = boundaries.get(i);
+                long end = boundaries.get(i + 1);
+                long chunkFirstLine = firstLine;
+                imports.add(() -> {
+                    importChunk(job, channel.map(FileChannel.MapMode.READ_ONLY, start, end - start),
+                        chunkFirstLine, columns, categoryIds);
+                    return null;
+                });
+                firstLine += lineCounts.get(i);
+            }
+            runAll(imports);
+        }
+    }
+
+    private void importChunk(CatalogImportJob job, MappedByteBuffer region, long firstLine,
+                             CatalogColumns columns, Map<String, Long> categoryIds) throws InterruptedException {
+        CsvLineReader reader = new CsvLineReader(region, false);
+        List<CatalogRow> batch = new ArrayList<>(batchSize);
+        long line = firstLine - 1;
+        int reportedPosition = 0;
+        long rows = 0;
+        while (reader.next()) {
+            line++;
+            if (reader.isBlank()) {
+                continue;
+            }
+            rows++;
+            if (reader.isMalformed()) {
+                job.rowFailed(line, null, "Unterminated quoted cell");
+                continue;
+            }
+            try {
+                batch.add(CatalogRow.parse(line, reader.cells(), columns, categoryIds));
+            } catch (CatalogRow.InvalidRowException e) {
+                job.rowFailed(line, columns.value(reader.cells(), CatalogField.SKU), e.getMessage());
+            }
+            if (batch.size() == batchSize) {
+                write(job, batch, columns);
+                batch.clear();
+                job.processed(reader.position() - reportedPosition, rows);
+                reportedPosition = reader.position();
+                rows = 0;
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException("Catalog import " + job.getId() + " interrupted");
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(job, batch, columns);
+        }
+        job.processed(region.limit() - reportedPosition, rows);
+    }
+
+    private void write(CatalogImportJob job, List<CatalogRow> batch, CatalogColumns columns) {
+        ProductUpserter.Result result;
+        try {
+            try {
+                result = productUpserter.upsert(batch, columns);
+            } catch (DataIntegrityViolationException e) {
+                // Another chunk or request inserted one of the SKUs first; now it updates
+                result = productUpserter.upsert(batch, columns);
+            }
+        } catch (DataAccessException e) {
+            String message = "Batch write failed: " + e.getMostSpecificCause().getMessage();
+            for (CatalogRow row : batch) {
+                job.rowFailed(row.line, row.sku(), message);
+            }
+            return;
+        }
+        job.written(result.inserted, result.updated);
+    }
+
+    /**
+     * Runs the tasks on the worker pool and waits for all of them. If one fails the
+     * rest are cancelled and its exception is rethrown.
+     */
+    private <T> List<T> runAll(List<Callable<T>> tasks) throws InterruptedException, ExecutionException {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        tasks.forEach(task -> futures.add(workers.submit(task)));
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
+    private static CatalogColumns header(FileChannel channel, long headerEnd) throws IOException {
+        CsvLineReader reader = new CsvLineReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, headerEnd), true);
+        if (!reader.next() || reader.isBlank() || reader.isMalformed()) {
+            throw new BadRequestException("Catalog file must start with a header row");
+        }
+        return new CatalogColumns(reader.cells());
+    }
+
+    private static long countLines(ByteBuffer region) {
+        long lines = 0;
+        int limit = region.limit();
+        for (int i = 0; i < limit; i++) {
+            if (region.get(i) == '\n') {
+                lines++;
+            }
+        }
+        return limit > 0 && region.get(limit - 1) != '\n' ? lines + 1 : lines;
+    }
+
+    /** The offset just past the first line break at or after from, or size if there is none. */
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,119 @@
+package com.orderflow.catalog;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A validated catalog row: typed values by field, with the category code already
+ * resolved to its id. Empty cells take the field's default.
+ */
+final class CatalogRow {
+
+    final long line;
+    private final Object[] values = new Object[CatalogField.values().length];
+
+    private CatalogRow(long line) {
+        this.line = line;
+    }
+
+    String sku() {
+        return (String) values[CatalogField.SKU.ordinal()];
+    }
+
+    Object get(CatalogField field) {
+        return values[field.ordinal()];
+    }
+
+    /**
+     * Checks and converts one row.
+     *
+     * @throws InvalidRowException with the reason if the row cannot be imported
+     */
+    static CatalogRow parse(long line, List<String> cells, CatalogColumns columns, Map<String, Long> categoryIds) {
+        if (cells.size() != columns.present().size()) {
+            throw new InvalidRowException("Expected " + columns.present().size() + " cells, found " + cells.size());
+        }
+        CatalogRow row = new CatalogRow(line);
+        for (CatalogField field : CatalogField.values()) {
+            String raw = columns.value(cells, field);
+            String value = raw == null ? "" : raw.trim();
+            if (value.isEmpty()) {
+                if (field.required) {
+                    throw new InvalidRowException(field.header + " is required");
+                }
+                row.values[field.ordinal()] = field.defaultValue;
+                continue;
+            }
+            row.values[field.ordinal()] = switch (field) {
+                case SKU -> maxLength(field, value, 50);
+                case NAME -> maxLength(field, value, 200);
+                case DESCRIPTION -> value;
+                case PRICE, COST_PRICE -> amount(field, value);
+                case QUANTITY_IN_STOCK, MIN_STOCK_LEVEL -> count(field, value);
+                case ACTIVE -> flag(field, value);
+                case CATEGORY_CODE -> {
+                    Long categoryId = categoryIds.get(value);
+                    if (categoryId == null) {
+                        throw new InvalidRowException("Unknown category code: " + value);
+                    }
+                    yield categoryId;
+                }
+            };
+        }
+        return row;
+    }
+
+    private static String maxLength(CatalogField field, String value, int max) {
+        if (value.length() > max) {
+            throw new InvalidRowException(field.header + " is longer than " + max + " characters");
+        }
+        return value;
+    }
+
+    private static BigDecimal amount(CatalogField field, String value) {
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidRowException(field.header + " is not a number: " + value);
+        }
+        // products.price and cost_price are NUMERIC(10, 2)
+        if (amount.signum() < 0 || amount.scale() > 2 || amount.precision() - amount.scale() > 8) {
+            throw new InvalidRowException(field.header + " must be between 0 and 99999999.99 with at most 2 decimals");
+        }
+        return amount;
+    }
+
+    private static Integer count(CatalogField field, String value) {
+        int count;
+        try {
+            count = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidRowException(field.header + " is not a whole number: " + value);
+        }
+        if (count < 0) {
+            throw new InvalidRowException(field.header + " cannot be negative");
+        }
+        return count;
+    }
+
+    private static Boolean flag(CatalogField field, String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "1":
+                return Boolean.TRUE;
+            case "false", "no", "0":
+                return Boolean.FALSE;
+            default:
+                throw new InvalidRowException(field.header + " must be true or false: " + value);
+        }
+    }
+
+    /** A row rejected by validation. Thrown per bad row, so it carries no stack trace. */
+    static final class InvalidRowException extends RuntimeException {
+        InvalidRowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
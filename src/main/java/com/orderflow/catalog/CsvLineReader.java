@@ -0,0 +1,101 @@
+package com.orderflow.catalog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits a region of a (memory-mapped) CSV file into lines and cells without
+ * copying the region: bytes are read in place and only each cell is decoded.
+ * Cells follow RFC 4180 quoting, but a quoted cell may not contain a line break,
+ * since the importer cuts the file into chunks at line breaks. A line with an
+ * unterminated quote is reported as malformed and reading resumes on the next.
+ */
+final class CsvLineReader {
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+    private final List<String> cells = new ArrayList<>();
+    private byte[] cell = new byte[256];
+    private int cellLength;
+    private boolean malformed;
+
+    CsvLineReader(ByteBuffer buffer, boolean fileStart) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+        // A UTF-8 byte order mark is not part of the first cell
+        if (fileStart && limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF) {
+            position = 3;
+        }
+    }
+
+    /** Reads the next line. False at the end of the region. */
+    boolean next() {
+        if (position >= limit) {
+            return false;
+        }
+        cells.clear();
+        cellLength = 0;
+        malformed = false;
+        boolean inQuotes = false;
+        while (position < limit) {
+            byte b = buffer.get(position++);
+            if (b == '\n') {
+                malformed |= inQuotes;
+                break;
+            }
+            if (inQuotes) {
+                if (b != '"') {
+                    append(b);
+                } else if (position < limit && buffer.get(position) == '"') {
+                    append(b);
+                    position++;
+                } else {
+                    inQuotes = false;
+                }
+            } else if (b == ',') {
+                endCell();
+            } else if (b == '"' && cellLength == 0) {
+                inQuotes = true;
+            } else if (b != '\r' || (position < limit && buffer.get(position) != '\n')) {
+                append(b);
+            }
+        }
+        malformed |= inQuotes;
+        endCell();
+        return true;
+    }
+
+    /** Position just past the current line, relative to the region. */
+    int position() {
+        return position;
+    }
+
+    List<String> cells() {
+        return cells;
+    }
+
+    boolean isBlank() {
+        return cells.size() == 1 && cells.get(0).isBlank();
+    }
+
+    boolean isMalformed() {
+        return malformed;
+    }
+
+    private void append(byte b) {
+        if (cellLength == cell.length) {
+            cell = Arrays.copyOf(cell, cellLength * 2);
+        }
+        cell[cellLength++] = b;
+    }
+
+    private void endCell() {
+        cells.add(new String(cell, 0, cellLength, StandardCharsets.UTF_8));
+        cellLength = 0;
+    }
+}
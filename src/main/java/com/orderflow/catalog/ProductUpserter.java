@@ -0,0 +1,208 @@
+package com.orderflow.catalog;
+
+import com.orderflow.cache.CatalogCache;
+import com.orderflow.inventory.LowStockIndex;
+import com.orderflow.search.ProductSearchIndex;
+import com.orderflow.service.StockReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a batch of catalog rows to the products table in one transaction: one
+ * query finds which SKUs exist, then one JDBC batch updates those and another
+ * inserts the rest. Soft-deleted products with an imported SKU are restored.
+ * <p>
+ * Caches, the search index, the low-stock set and the stock ledger are told about
+ * the whole batch at once, after commit.
+ */
+@Component
+class ProductUpserter {
+
+    private static final String ID_SEQUENCE = "orderflow_id_seq";
+    // BaseEntity's allocationSize: each sequence value is the top of a block of ids
+    private static final int ID_BLOCK = 50;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO products (id, sku, name, description, price, cost_price, quantity_in_stock, min_stock_level, " +
+        "active, category_id, reserved_quantity, deleted, version, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, FALSE, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String nextIdSql;
+    private final CatalogCache catalogCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final LowStockIndex lowStockIndex;
+    private final StockReservationService stockReservationService;
+
+    @Autowired
+    ProductUpserter(JdbcTemplate jdbcTemplate,
+                    PlatformTransactionManager transactionManager,
+                    EntityManagerFactory entityManagerFactory,
+                    CatalogCache catalogCache,
+                    ProductSearchIndex productSearchIndex,
+                    LowStockIndex lowStockIndex,
+                    StockReservationService stockReservationService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nextIdSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+            .getSequenceSupport().getSequenceNextValString(ID_SEQUENCE);
+        this.catalogCache = catalogCache;
+        this.productSearchIndex = productSearchIndex;
+        this.lowStockIndex = lowStockIndex;
+        this.stockReservationService = stockReservationService;
+    }
+
+    /**
+     * Upserts the rows on SKU. If the same SKU appears more than once in the batch
+     * the last row wins. Throws DataIntegrityViolationException if another writer
+     * inserted one of the new SKUs first; retrying then updates it instead.
+     */
+    Result upsert(List<CatalogRow> rows, CatalogColumns columns) {
+        Map<String, CatalogRow> bySku = new LinkedHashMap<>();
+        for (CatalogRow row : rows) {
+            bySku.put(row.sku(), row);
+        }
+        return transactionTemplate.execute(status -> {
+            Map<String, Long> existing = existingIds(bySku.keySet());
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> newIds = allocateIds(bySku.size() - existing.size());
+            List<Long> insertedIds = new ArrayList<>();
+            List<Long> updatedIds = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> updates = new ArrayList<>();
+            for (CatalogRow row : bySku.values()) {
+                Long id = existing.get(row.sku());
+                if (id == null) {
+                    id = newIds.get(insertedIds.size());
+                    insertedIds.add(id);
+                    inserts.add(insertValues(row, id, now));
+                } else {
+                    updatedIds.add(id);
+                    updates.add(updateValues(row, columns, id, now));
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(updateSql(columns), updates, updateTypes(columns));
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts, insertTypes());
+            }
+
+            List<Long> changed = new ArrayList<>(updatedIds);
+            changed.addAll(insertedIds);
+            catalogCache.invalidateProducts(updatedIds);
+            stockReservationService.invalidateAll(updatedIds);
+            productSearchIndex.productsChanged(changed);
+            lowStockIndex.stockChanged(changed);
+            return new Result(insertedIds.size(), updatedIds.size());
+        });
+    }
+
+    private Map<String, Long> existingIds(Iterable<String> skus) {
+        List<Object> parameters = new ArrayList<>();
+        skus.forEach(parameters::add);
+        String sql = "SELECT id, sku FROM products WHERE sku IN (" + "?, ".repeat(parameters.size() - 1) + "?)";
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            ids.put(rs.getString(2), rs.getLong(1));
+        }, parameters.toArray());
+        return ids;
+    }
+
+    /**
+     * Takes ids the way Hibernate's pooled optimizer does, so they never collide
+     * with ids handed out to entities. Unused ids of the last block are skipped.
+     */
+    private List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            long high = jdbcTemplate.queryForObject(nextIdSql, Long.class);
+            for (long id = Math.max(1, high - ID_BLOCK + 1); id <= high && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static Object[] insertValues(CatalogRow row, long id, LocalDateTime now) {
+        CatalogField[] fields = CatalogField.values();
+        Object[] values = new Object[fields.length + 3];
+        values[0] = id;
+        for (int i = 0; i < fields.length; i++) {
+            values[i + 1] = row.get(fields[i]);
+        }
+        values[fields.length + 1] = now;
+        values[fields.length + 2] = now;
+        return values;
+    }
+
+    private static int[] insertTypes() {
+        CatalogField[] fields = CatalogField.values();
+        int[] types = new int[fields.length + 3];
+        types[0] = Types.BIGINT;
+        for (int i = 0; i < fields.length; i++) {
+            types[i + 1] = fields[i].sqlType;
+        }
+        types[fields.length + 1] = Types.TIMESTAMP;
+        types[fields.length + 2] = Types.TIMESTAMP;
+        return types;
+    }
+
+    private static String updateSql(CatalogColumns columns) {
+        StringBuilder sql = new StringBuilder("UPDATE products SET ");
+        for (CatalogField field : columns.present()) {
+            if (field != CatalogField.SKU) {
+                sql.append(field.column).append(" = ?, ");
+            }
+        }
+        return sql.append("deleted = FALSE, updated_at = ?, version = version + 1 WHERE id = ?").toString();
+    }
+
+    private static Object[] updateValues(CatalogRow row, CatalogColumns columns, long id, LocalDateTime now) {
+        List<Object> values = new ArrayList<>();
+        for (CatalogField field : columns.present()) {
+            if (field != CatalogField.SKU) {
+                values.add(row.get(field));
+            }
+        }
+        values.add(now);
+        values.add(id);
+        return values.toArray();
+    }
+
+    private static int[] updateTypes(CatalogColumns columns) {
+        List<Integer> types = new ArrayList<>();
+        for (CatalogField field : columns.present()) {
+            if (field != CatalogField.SKU) {
+                types.add(field.sqlType);
+            }
+        }
+        types.add(Types.TIMESTAMP);
+        types.add(Types.BIGINT);
+        return types.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static final class Result {
+        final int inserted;
+        final int updated;
+
+        Result(int inserted, int updated) {
+            this.inserted = inserted;
+            this.updated = updated;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.orderflow.category;
+
+import com.orderflow.model.dto.CategoryNodeDTO;
+import com.orderflow.model.entity.Category;
+import com.orderflow.repository.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable in-memory snapshot of the category hierarchy. The snapshot is rebuilt
+ * from the materialized paths in one query after every committed category change
+ * and swapped in with a single volatile write, so readers never see a half-built
+ * tree. Deleted categories and everything below them are left out.
+ * <p>
+ * At startup, paths missing from rows written before the column existed are
+ * derived from the parent links.
+ */
+@Component
+public class CategoryTree {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryTree.class);
+
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), Map.of());
+
+    @Autowired
+    public CategoryTree(CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        // Refreshes run from afterCommit callbacks, where only a new transaction is safe
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        backfillPaths();
+        refresh();
+    }
+
+    public List<CategoryNodeDTO> roots() {
+        return snapshot.roots;
+    }
+
+    public Optional<CategoryNodeDTO> find(Long id) {
+        return Optional.ofNullable(snapshot.nodes.get(id));
+    }
+
+    /**
+     * Rebuilds the snapshot once the current transaction commits.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Reads and publishes under one lock, so a slower refresh that read older rows
+     * can never overwrite a newer snapshot.
+     */
+    public synchronized void refresh() {
+        List<Category> categories = transactionTemplate.execute(status -> categoryRepository.findAllForTree());
+        snapshot = Snapshot.of(categories);
+    }
+
+    private void backfillPaths() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, CategoryRepository.ParentLink> links = new HashMap<>();
+            for (CategoryRepository.ParentLink link : categoryRepository.findAllParentLinks()) {
+                links.put(link.getId(), link);
+            }
+            Map<Long, String> paths = new HashMap<>();
+            int filled = 0;
+            for (CategoryRepository.ParentLink link : links.values()) {
+                if (link.getPath() == null) {
+                    String path = pathOf(link.getId(), links, paths, 0);
+                    categoryRepository.updatePath(link.getId(), path, depthOf(path));
+                    filled++;
+                }
+            }
+            if (filled > 0) {
+                log.info("Backfilled materialized paths for {} categories", filled);
+            }
+        });
+    }
+
+    private static String pathOf(Long id, Map<Long, CategoryRepository.ParentLink> links,
+                                 Map<Long, String> paths, int hops) {
+        String known = paths.get(id);
+        if (known != null) {
+            return known;
+        }
+        CategoryRepository.ParentLink link = links.get(id);
+        if (hops > links.size()) {
+            throw new IllegalStateException("Category parent links form a cycle at id " + id);
+        }
+        String path = link.getParentId() == null
+            ? "/" + id + "/"
+            : pathOf(link.getParentId(), links, paths, hops + 1) + id + "/";
+        paths.put(id, path);
+        return path;
+    }
+
+    /** Number of ancestors: one less than the ids in the path. */
+    static int depthOf(String path) {
+        int slashes = 0;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '/') {
+                slashes++;
+            }
+        }
+        return slashes - 2;
+    }
+
+    private static final class Snapshot {
+        final List<CategoryNodeDTO> roots;
+        final Map<Long, CategoryNodeDTO> nodes;
+
+        Snapshot(List<CategoryNodeDTO> roots, Map<Long, CategoryNodeDTO> nodes) {
+            this.roots = roots;
+            this.nodes = nodes;
+        }
+
+        /**
+         * Builds from categories ordered by depth, so a parent is always seen
+         * before its children and orphans of deleted categories can be skipped.
+         */
+        static Snapshot of(List<Category> categories) {
+            Map<Long, List<Category>> children = new HashMap<>();
+            List<Category> roots = new ArrayList<>();
+            for (Category category : categories) {
+                if (category.getPath() == null) {
+                    continue;
+                }
+                Long parentId = parentId(category.getPath());
+                if (parentId == null) {
+                    roots.add(category);
+                    children.put(category.getId(), new ArrayList<>());
+                } else if (children.containsKey(parentId)) {
+                    children.get(parentId).add(category);
+                    children.put(category.getId(), new ArrayList<>());
+                }
+            }
+            Map<Long, CategoryNodeDTO> nodes = new HashMap<>();
+            List<CategoryNodeDTO> rootNodes = new ArrayList<>();
+            for (Category root : roots) {
+                rootNodes.add(node(root, children, nodes));
+            }
+            return new Snapshot(List.copyOf(rootNodes), Map.copyOf(nodes));
+        }
+
+        private static CategoryNodeDTO node(Category category, Map<Long, List<Category>> children,
+                                            Map<Long, CategoryNodeDTO> nodes) {
+            List<CategoryNodeDTO> childNodes = new ArrayList<>();
+            for (Category child : children.get(category.getId())) {
+                childNodes.add(node(child, children, nodes));
+            }
+            CategoryNodeDTO node = new CategoryNodeDTO(category.getId(), category.getCode(), category.getName(),
+                category.getDescription(), category.getActive(), category.getPath(), depthOf(category.getPath()),
+                childNodes);
+            nodes.put(node.getId(), node);
+            return node;
+        }
+
+        private static Long parentId(String path) {
+            int end = path.lastIndexOf('/', path.length() - 2);
+            if (end <= 0) {
+                return null;
+            }
+            int start = path.lastIndexOf('/', end - 1);
+            return Long.parseLong(path.substring(start + 1, end));
+        }
+    }
+}
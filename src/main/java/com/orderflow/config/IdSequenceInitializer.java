@@ -0,0 +1,82 @@
+package com.orderflow.config;
+
+import com.orderflow.model.entity.BaseEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Moves orderflow_id_seq above the highest entity id on startup. A database
+ * created while ids were IDENTITY columns either has no sequence or gets one from
+ * schema update starting at 1, and would otherwise hand out ids already taken.
+ * Runs after the schema is in place and before any ApplicationReadyEvent work.
+ */
+@Component
+public class IdSequenceInitializer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    private static final String ID_SEQUENCE = "orderflow_id_seq";
+    // BaseEntity's allocationSize: each sequence value is the top of a block of ids
+    private static final int ID_BLOCK = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionFactoryImplementor sessionFactory;
+
+    @Autowired
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        long maxId = 0;
+        for (String table : entityTables()) {
+            Long tableMax = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            if (tableMax != null) {
+                maxId = Math.max(maxId, tableMax);
+            }
+        }
+        long start = maxId + ID_BLOCK;
+
+        Long next;
+        try {
+            next = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(ID_SEQUENCE), Long.class);
+        } catch (DataAccessException e) {
+            for (String sql : dialect.getSequenceSupport().getCreateSequenceStrings(ID_SEQUENCE, (int) start, ID_BLOCK)) {
+                jdbcTemplate.execute(sql);
+            }
+            log.info("Created {} starting at {}", ID_SEQUENCE, start);
+            return;
+        }
+        if (next - ID_BLOCK < maxId) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + ID_SEQUENCE + " RESTART WITH " + start);
+            log.info("Moved {} from {} to {}, above the highest entity id {}", ID_SEQUENCE, next, start, maxId);
+        }
+    }
+
+    private Set<String> entityTables() {
+        Set<String> tables = new TreeSet<>();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (BaseEntity.class.isAssignableFrom(persister.getMappedClass())
+                    && persister instanceof AbstractEntityPersister entityPersister) {
+                tables.add(entityPersister.getTableName());
+            }
+        });
+        return tables;
+    }
+}
@@ -0,0 +1,46 @@
+package com.orderflow.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pricing rules under orderflow.pricing. A tax rule leaves region, category or
+ * segment empty to match any value; region is a country, or country/state.
+ */
+@Component
+@ConfigurationProperties(prefix = "orderflow.pricing")
+public class PricingProperties {
+
+    private BigDecimal defaultTaxRate = new BigDecimal("0.18");
+    private List<TaxRule> taxRules = new ArrayList<>();
+    private Map<String, BigDecimal> segmentDiscounts = new HashMap<>();
+
+    public static class TaxRule {
+        private String region;
+        private String category;
+        private String segment;
+        private BigDecimal rate;
+
+        public String getRegion() { return region; }
+        public void setRegion(String region) { this.region = region; }
+        public String getCategory() { return category; }
+        public void setCategory(String category) { this.category = category; }
+        public String getSegment() { return segment; }
+        public void setSegment(String segment) { this.segment = segment; }
+        public BigDecimal getRate() { return rate; }
+        public void setRate(BigDecimal rate) { this.rate = rate; }
+    }
+
+    public BigDecimal getDefaultTaxRate() { return defaultTaxRate; }
+    public void setDefaultTaxRate(BigDecimal defaultTaxRate) { this.defaultTaxRate = defaultTaxRate; }
+    public List<TaxRule> getTaxRules() { return taxRules; }
+    public void setTaxRules(List<TaxRule> taxRules) { this.taxRules = taxRules; }
+    public Map<String, BigDecimal> getSegmentDiscounts() { return segmentDiscounts; }
+    public void setSegmentDiscounts(Map<String, BigDecimal> segmentDiscounts) { this.segmentDiscounts = segmentDiscounts; }
+}
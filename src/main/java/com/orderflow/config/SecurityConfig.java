@@ -1,6 +1,7 @@
 package com.orderflow.config;
 
 import com.orderflow.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,6 +29,10 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Streamed responses finish on an async dispatch of an already authorized request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                // Cache, sales and stock figures are not public
+                .requestMatchers("/actuator/metrics", "/actuator/metrics/**").authenticated()
                 .requestMatchers("/api/v1/auth/**", "/h2-console/**", "/actuator/**").permitAll()
                 .anyRequest().authenticated()
             )
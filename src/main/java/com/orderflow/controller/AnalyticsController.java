@@ -0,0 +1,70 @@
+package com.orderflow.controller;
+
+import com.orderflow.model.dto.LiveSalesDTO;
+import com.orderflow.model.dto.SalesSummaryDTO;
+import com.orderflow.model.dto.SalesTotalsDTO;
+import com.orderflow.model.enums.RollupDimension;
+import com.orderflow.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    @Autowired
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping("/sales")
+    public ResponseEntity<SalesSummaryDTO> getSalesSummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.getSalesSummary(from, to));
+    }
+
+    @GetMapping("/sales/by-product")
+    public ResponseEntity<List<SalesTotalsDTO>> getSalesByProduct(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(analyticsService.getTopSales(RollupDimension.PRODUCT, from, to, limit));
+    }
+
+    @GetMapping("/sales/by-category")
+    public ResponseEntity<List<SalesTotalsDTO>> getSalesByCategory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(analyticsService.getTopSales(RollupDimension.CATEGORY, from, to, limit));
+    }
+
+    @GetMapping("/sales/by-segment")
+    public ResponseEntity<List<SalesTotalsDTO>> getSalesBySegment(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.getTopSales(RollupDimension.SEGMENT, from, to, 50));
+    }
+
+    @GetMapping("/live")
+    public ResponseEntity<LiveSalesDTO> getLiveSales(@RequestParam(defaultValue = "20") int top) {
+        return ResponseEntity.ok(analyticsService.getLiveSales(top));
+    }
+
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Void> rebuildRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        analyticsService.rebuildRollups(from, to);
+        return ResponseEntity.noContent().build();
+    }
+}
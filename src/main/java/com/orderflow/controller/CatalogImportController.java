@@ -0,0 +1,51 @@
+package com.orderflow.controller;
+
+import com.orderflow.model.dto.CatalogImportDTO;
+import com.orderflow.model.dto.ImportRowErrorDTO;
+import com.orderflow.service.CatalogImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/catalog/imports")
+@CrossOrigin(origins = "*")
+public class CatalogImportController {
+
+    private final CatalogImportService catalogImportService;
+
+    @Autowired
+    public CatalogImportController(CatalogImportService catalogImportService) {
+        this.catalogImportService = catalogImportService;
+    }
+
+    /**
+     * Takes the catalog CSV as the raw request body, e.g.
+     * {@code curl --data-binary @catalog.csv -H 'Content-Type: text/csv'}.
+     */
+    @PostMapping(consumes = {"text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<CatalogImportDTO> startImport(InputStream body,
+                                                        @RequestParam(required = false) String fileName) {
+        return new ResponseEntity<>(catalogImportService.startImport(body, fileName), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<CatalogImportDTO>> getImports() {
+        return ResponseEntity.ok(catalogImportService.getImports());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<CatalogImportDTO> getImport(@PathVariable String id) {
+        return ResponseEntity.ok(catalogImportService.getImport(id));
+    }
+
+    @GetMapping("/{id}/errors")
+    public ResponseEntity<List<ImportRowErrorDTO>> getImportErrors(@PathVariable String id) {
+        return ResponseEntity.ok(catalogImportService.getImportErrors(id));
+    }
+}
@@ -1,8 +1,12 @@
 package com.orderflow.controller;
 
+import com.orderflow.model.dto.CategoryNodeDTO;
 import com.orderflow.model.entity.Category;
+import com.orderflow.model.entity.Product;
 import com.orderflow.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -58,6 +62,21 @@ public class CategoryController {
         return ResponseEntity.ok(categories);
     }
 
+    @GetMapping("/tree")
+    public ResponseEntity<List<CategoryNodeDTO>> getCategoryTree() {
+        return ResponseEntity.ok(categoryService.getCategoryTree());
+    }
+
+    @GetMapping("/{id}/tree")
+    public ResponseEntity<CategoryNodeDTO> getCategorySubtree(@PathVariable Long id) {
+        return ResponseEntity.ok(categoryService.getCategorySubtree(id));
+    }
+
+    @GetMapping("/{id}/products")
+    public ResponseEntity<Page<Product>> getSubtreeProducts(@PathVariable Long id, Pageable pageable) {
+        return ResponseEntity.ok(categoryService.getSubtreeProducts(id, pageable));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Category> updateCategory(@PathVariable Long id, @Valid @RequestBody Category category) {
         Category updatedCategory = categoryService.updateCategory(id, category);
@@ -9,6 +9,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -19,10 +20,13 @@ import java.util.List;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     @Autowired
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService,
+                              JsonArrayStreamer jsonArrayStreamer) {
         this.customerService = customerService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     @PostMapping
@@ -50,9 +54,8 @@ public class CustomerController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Customer>> getAllCustomers() {
-        List<Customer> customers = customerService.getAllCustomers();
-        return ResponseEntity.ok(customers);
+    public ResponseEntity<StreamingResponseBody> getAllCustomers() {
+        return jsonArrayStreamer.stream(customerService::streamAllCustomers);
     }
 
     @GetMapping("/active")
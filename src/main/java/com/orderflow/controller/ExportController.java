@@ -0,0 +1,89 @@
+package com.orderflow.controller;
+
+import com.orderflow.export.ExportFile;
+import com.orderflow.model.dto.ExportJobDTO;
+import com.orderflow.model.dto.ExportRequest;
+import com.orderflow.service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/exports")
+@CrossOrigin(origins = "*")
+public class ExportController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ExportService exportService;
+
+    @Autowired
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ExportJobDTO> startExport(@RequestBody ExportRequest request) {
+        return new ResponseEntity<>(exportService.startExport(request), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ExportJobDTO>> getExports() {
+        return ResponseEntity.ok(exportService.getExports());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ExportJobDTO> getExport(@PathVariable String id) {
+        return ResponseEntity.ok(exportService.getExport(id));
+    }
+
+    /**
+     * Sends the file without copying it through the heap. Where the connector
+     * supports it, Tomcat is handed the file to sendfile once this method returns;
+     * otherwise the file channel is transferred to the response.
+     */
+    @GetMapping("/{id}/download")
+    public void download(@PathVariable String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ExportFile file = exportService.getExportFile(id);
+        response.setContentType(file.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(file.getFileName()).build().toString());
+        response.setContentLengthLong(file.getSize());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, file.getSize());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < file.getSize()) {
+                position += channel.transferTo(position, file.getSize() - position, out);
+            }
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteExport(@PathVariable String id) {
+        exportService.deleteExport(id);
+        return ResponseEntity.noContent().build();
+    }
+}
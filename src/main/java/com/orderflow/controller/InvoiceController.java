@@ -4,6 +4,8 @@ import com.orderflow.model.entity.Invoice;
 import com.orderflow.model.enums.InvoiceStatus;
 import com.orderflow.service.InvoiceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -60,8 +62,8 @@ public class InvoiceController {
     }
 
     @GetMapping("/overdue")
-    public ResponseEntity<List<Invoice>> getOverdueInvoices() {
-        List<Invoice> invoices = invoiceService.getOverdueInvoices();
+    public ResponseEntity<Page<Invoice>> getOverdueInvoices(Pageable pageable) {
+        Page<Invoice> invoices = invoiceService.getOverdueInvoices(pageable);
         return ResponseEntity.ok(invoices);
     }
 
@@ -0,0 +1,41 @@
+package com.orderflow.controller;
+
+import com.orderflow.exception.BadRequestException;
+import com.orderflow.journal.JournalProjections;
+import com.orderflow.journal.OrderJournal;
+import com.orderflow.model.dto.DailySalesDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/journal")
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = "orderflow.journal.enabled", havingValue = "true")
+public class JournalController {
+
+    @Autowired
+    private OrderJournal orderJournal;
+
+    @GetMapping("/reservations")
+    public ResponseEntity<Map<Long, Long>> getReservations() {
+        return ResponseEntity.ok(JournalProjections.reservationsByProduct(orderJournal));
+    }
+
+    @GetMapping("/daily-sales")
+    public ResponseEntity<List<DailySalesDTO>> getDailySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from) || to.toEpochDay() - from.toEpochDay() > 3660) {
+            throw new BadRequestException("Date range must be ordered and at most ten years long");
+        }
+        return ResponseEntity.ok(JournalProjections.dailySales(orderJournal, from, to, ZoneId.systemDefault()));
+    }
+}
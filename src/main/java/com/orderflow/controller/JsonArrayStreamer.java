@@ -0,0 +1,73 @@
+package com.orderflow.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a repository stream to the response as a JSON array, one row at a time.
+ * The stream is opened and drained inside a read-only transaction on the async
+ * request thread. Every flush-rows rows the generator is flushed and the
+ * persistence context cleared, so heap use stays flat however many rows there are.
+ * The repository queries behind these streams carry fetch-size and read-only
+ * hints, so rows arrive from the driver in batches and Hibernate keeps no
+ * snapshots for dirty checking.
+ * Lazy associations are not initialized while streaming and serialize as null,
+ * as they do for the list endpoints.
+ */
+@Component
+public class JsonArrayStreamer {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushRows;
+
+    @Autowired
+    public JsonArrayStreamer(ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${orderflow.streaming.flush-rows:500}") int flushRows) {
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.flushRows = flushRows;
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> rows) {
+        StreamingResponseBody body = out -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                int written = 0;
+                for (Iterator<T> it = stream.iterator(); it.hasNext(); ) {
+                    generator.writeObject(it.next());
+                    if (++written % flushRows == 0) {
+                        generator.flush();
+                        entityManager.clear();
+                    }
+                }
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
@@ -1,42 +1,177 @@
 package com.orderflow.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderflow.exception.BadRequestException;
+import com.orderflow.model.dto.OrderBatchResult;
+import com.orderflow.model.dto.OrderPageDTO;
 import com.orderflow.model.dto.OrderResponseDTO;
+import com.orderflow.model.dto.OrderSearchCriteria;
+import com.orderflow.model.dto.OrderStatusBatchRequest;
+import com.orderflow.model.dto.OrderStatusResult;
 import com.orderflow.model.entity.Order;
 import com.orderflow.model.enums.OrderStatus;
+import com.orderflow.service.IdempotencyService;
+import com.orderflow.service.OrderQueryService;
 import com.orderflow.service.OrderService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/orders")
 @CrossOrigin(origins = "*")
 public class OrderController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${orderflow.orders.batch.chunk-size:100}")
+    private int batchChunkSize;
+
+    @Value("${orderflow.orders.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${orderflow.orders.page.max-size:500}")
+    private int maxPageSize;
+
     @PostMapping
-    public ResponseEntity<OrderResponseDTO> createOrder(@RequestBody Order order) {
-        Order createdOrder = orderService.createOrder(order);
-        return new ResponseEntity<>(OrderResponseDTO.from(createdOrder), HttpStatus.CREATED);
+    public ResponseEntity<?> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody Order order) {
+        return idempotencyService.execute("orders", idempotencyKey, order, () -> {
+            Order createdOrder = orderService.createOrder(order);
+            return new ResponseEntity<>(OrderResponseDTO.from(createdOrder), HttpStatus.CREATED);
+        });
+    }
+
+    /**
+     * Bulk order intake. The body is either newline-delimited JSON or a JSON array of
+     * orders and is parsed incrementally; orders are committed in chunks and one
+     * result line per order is streamed back as soon as its chunk completes.
+     * If a chunk fails to commit, every order in it is reported as failed.
+     */
+    @PostMapping(value = "/batch", consumes = {NDJSON, MediaType.APPLICATION_JSON_VALUE})
+    public void createOrdersBatch(InputStream body, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON);
+
+        try (MappingIterator<Order> orders = objectMapper.readerFor(Order.class).readValues(body);
+             JsonGenerator out = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            out.setRootValueSeparator(new SerializedString("\n"));
+
+            List<Order> chunk = new ArrayList<>(batchChunkSize);
+            int line = 1;
+            String unreadable = null;
+            while (true) {
+                try {
+                    if (!orders.hasNextValue()) {
+                        break;
+                    }
+                    chunk.add(orders.nextValue());
+                } catch (IOException | RuntimeException ex) {
+                    // Malformed input: commit what was parsed so far, then report and stop
+                    unreadable = "Unreadable order: " + ex.getMessage();
+                    break;
+                }
+                if (chunk.size() == batchChunkSize) {
+                    line = commitChunk(out, chunk, line);
+                }
+            }
+            line = commitChunk(out, chunk, line);
+            if (unreadable != null) {
+                out.writeObject(OrderBatchResult.failed(line, unreadable));
+            }
+        }
+    }
+
+    /**
+     * Creates the chunk, empties it, then writes its results. A failed write (the
+     * client went away) ends the intake without creating the chunk a second time.
+     */
+    private int commitChunk(JsonGenerator out, List<Order> chunk, int firstLine) throws IOException {
+        List<OrderBatchResult> results = createChunk(chunk, firstLine);
+        int size = chunk.size();
+        chunk.clear();
+        writeResults(out, results);
+        return firstLine + size;
+    }
+
+    private List<OrderBatchResult> createChunk(List<Order> chunk, int firstLine) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return orderService.createOrders(chunk, firstLine);
+        } catch (RuntimeException ex) {
+            List<OrderBatchResult> failed = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                failed.add(OrderBatchResult.failed(firstLine + i, "Chunk rolled back: " + ex.getMessage()));
+            }
+            return failed;
+        }
+    }
+
+    private void writeResults(JsonGenerator out, List<OrderBatchResult> results) throws IOException {
+        for (OrderBatchResult result : results) {
+            out.writeObject(result);
+        }
+        out.flush();
     }
 
     @GetMapping
-    public ResponseEntity<List<OrderResponseDTO>> getAllOrders() {
-        List<OrderResponseDTO> orders = orderService.getAllOrders()
-            .stream()
-            .map(OrderResponseDTO::from)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<OrderPageDTO> getAllOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BadRequestException("limit must be between 1 and " + maxPageSize);
+        }
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setStatus(status);
+        criteria.setCustomerId(customerId);
+        criteria.setFrom(from);
+        criteria.setTo(to);
+        criteria.setMinAmount(minAmount);
+        criteria.setMaxAmount(maxAmount);
+        return ResponseEntity.ok(orderQueryService.findOrders(criteria, cursor, pageSize));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<OrderResponseDTO> getOrderById(@PathVariable Long id) {
-        return ResponseEntity.ok(OrderResponseDTO.from(orderService.getOrderById(id)));
+        return ResponseEntity.ok(orderQueryService.getOrder(id));
     }
 
     @PatchMapping("/{id}/status")
@@ -47,6 +182,41 @@ public class OrderController {
         return ResponseEntity.ok(OrderResponseDTO.from(updatedOrder));
     }
 
+    /**
+     * Moves many orders to one status. Orders are processed in chunks, each in its
+     * own transaction with stock and customer totals settled in aggregate. If a
+     * chunk is rolled back (e.g. a product runs short for the combined quantity),
+     * its orders are retried one at a time so only the offending ones fail.
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<List<OrderStatusResult>> updateOrderStatuses(@RequestBody OrderStatusBatchRequest request) {
+        if (request.getStatus() == null || request.getOrderIds() == null) {
+            throw new BadRequestException("Both status and orderIds are required");
+        }
+        List<Long> orderIds = new ArrayList<>(new LinkedHashSet<>(request.getOrderIds()));
+        List<OrderStatusResult> results = new ArrayList<>(orderIds.size());
+        for (int from = 0; from < orderIds.size(); from += batchChunkSize) {
+            List<Long> chunk = orderIds.subList(from, Math.min(orderIds.size(), from + batchChunkSize));
+            try {
+                results.addAll(orderService.updateOrderStatuses(chunk, request.getStatus()));
+            } catch (RuntimeException ex) {
+                for (Long orderId : chunk) {
+                    results.add(updateOneStatus(orderId, request.getStatus()));
+                }
+            }
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    private OrderStatusResult updateOneStatus(Long orderId, OrderStatus status) {
+        try {
+            orderService.updateOrderStatus(orderId, status);
+            return OrderStatusResult.updated(orderId, status);
+        } catch (RuntimeException ex) {
+            return OrderStatusResult.failed(orderId, ex.getMessage());
+        }
+    }
+
     @PostMapping("/{id}/cancel")
     public ResponseEntity<Void> cancelOrder(
             @PathVariable Long id,
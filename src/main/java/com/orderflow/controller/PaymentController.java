@@ -2,11 +2,13 @@ package com.orderflow.controller;
 
 import com.orderflow.model.entity.Payment;
 import com.orderflow.model.enums.PaymentStatus;
+import com.orderflow.service.IdempotencyService;
 import com.orderflow.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -17,10 +19,15 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     @Autowired
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, IdempotencyService idempotencyService,
+                             JsonArrayStreamer jsonArrayStreamer) {
         this.paymentService = paymentService;
+        this.idempotencyService = idempotencyService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     @PostMapping
@@ -30,11 +37,14 @@ public class PaymentController {
     }
 
     @PostMapping("/process/invoice/{invoiceId}")
-    public ResponseEntity<Payment> processPayment(
+    public ResponseEntity<?> processPayment(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @PathVariable Long invoiceId,
             @Valid @RequestBody Payment payment) {
-        Payment processedPayment = paymentService.processPayment(invoiceId, payment);
-        return new ResponseEntity<>(processedPayment, HttpStatus.CREATED);
+        return idempotencyService.execute("payments:invoice:" + invoiceId, idempotencyKey, payment, () -> {
+            Payment processedPayment = paymentService.processPayment(invoiceId, payment);
+            return new ResponseEntity<>(processedPayment, HttpStatus.CREATED);
+        });
     }
 
     @GetMapping("/{id}")
@@ -56,9 +66,8 @@ public class PaymentController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Payment>> getPaymentsByStatus(@PathVariable PaymentStatus status) {
-        List<Payment> payments = paymentService.getPaymentsByStatus(status);
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<StreamingResponseBody> getPaymentsByStatus(@PathVariable PaymentStatus status) {
+        return jsonArrayStreamer.stream(() -> paymentService.streamPaymentsByStatus(status));
     }
 
     @PatchMapping("/{id}/status")
@@ -1,16 +1,25 @@
 package com.orderflow.controller;
 
+import com.orderflow.exception.BadRequestException;
+import com.orderflow.inventory.LowStockIndex;
+import com.orderflow.model.dto.StockAdjustmentRequest;
+import com.orderflow.model.dto.StockAdjustmentResult;
 import com.orderflow.model.entity.Product;
 import com.orderflow.service.ProductService;
+import com.orderflow.service.StockAdjustmentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -18,10 +27,19 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final JsonArrayStreamer jsonArrayStreamer;
+    private final LowStockIndex lowStockIndex;
+    private final StockAdjustmentService stockAdjustmentService;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             JsonArrayStreamer jsonArrayStreamer,
+                             LowStockIndex lowStockIndex,
+                             StockAdjustmentService stockAdjustmentService) {
         this.productService = productService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
+        this.lowStockIndex = lowStockIndex;
+        this.stockAdjustmentService = stockAdjustmentService;
     }
 
     @PostMapping
@@ -43,9 +61,8 @@ public class ProductController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<StreamingResponseBody> getAllProducts() {
+        return jsonArrayStreamer.stream(productService::streamAllProducts);
     }
 
     @GetMapping("/active")
@@ -60,6 +77,11 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowStockEvents() {
+        return lowStockIndex.subscribe();
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Page<Product>> searchProducts(
             @RequestParam String keyword,
@@ -74,10 +96,27 @@ public class ProductController {
         return ResponseEntity.ok(updatedProduct);
     }
 
+    /**
+     * Scanner deltas are group-committed with other concurrent adjustments; the
+     * response is sent once the batch holding this one has committed.
+     */
     @PatchMapping("/{id}/stock")
-    public ResponseEntity<Void> updateStock(@PathVariable Long id, @RequestParam Integer quantity) {
-        productService.updateStock(id, quantity);
-        return ResponseEntity.ok().build();
+    public CompletableFuture<ResponseEntity<Void>> updateStock(@PathVariable Long id, @RequestParam Integer quantity) {
+        return stockAdjustmentService.adjustStock(id, quantity)
+            .thenApply(stock -> ResponseEntity.ok().<Void>build());
+    }
+
+    /**
+     * Applies many deltas at once, in the order given. Each gets its own result, so
+     * a delta rejected for insufficient stock does not fail the others.
+     */
+    @PostMapping("/stock-adjustments")
+    public CompletableFuture<ResponseEntity<List<StockAdjustmentResult>>> adjustStock(
+            @RequestBody List<StockAdjustmentRequest> adjustments) {
+        if (adjustments == null || adjustments.isEmpty()) {
+            throw new BadRequestException("At least one stock adjustment is required");
+        }
+        return stockAdjustmentService.adjustStock(adjustments).thenApply(ResponseEntity::ok);
     }
 
     @DeleteMapping("/{id}")
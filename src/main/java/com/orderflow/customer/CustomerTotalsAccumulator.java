@@ -0,0 +1,125 @@
+package com.orderflow.customer;
+
+import com.orderflow.model.entity.Customer;
+import com.orderflow.repository.CustomerRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates customer lifetime totals (order count and amount spent) so that
+ * confirming an order never touches the customer row. Deltas are added to
+ * per-customer LongAdders once the confirming transaction commits and are written
+ * to the customers table every flush interval, after which segments are
+ * re-evaluated on the new totals. Totals read from the customers table lag by up
+ * to one flush interval, and deltas not yet flushed are lost if the node crashes.
+ */
+@Component
+public class CustomerTotalsAccumulator {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerTotalsAccumulator.class);
+
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Entries are never removed, so a delta can never land in a dropped adder
+    private final Map<Long, Totals> totals = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CustomerTotalsAccumulator(CustomerRepository customerRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Records one confirmed order, after the current transaction commits if one is active.
+     */
+    public void recordOrder(Long customerId, BigDecimal amount) {
+        long spentMinor = amount == null ? 0 : toMinor(amount);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(customerId, 1, spentMinor);
+                }
+            });
+        } else {
+            add(customerId, 1, spentMinor);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Writes pending deltas in one transaction, then re-evaluates the segments of
+     * the customers that changed. On failure the deltas are added back.
+     */
+    @Scheduled(fixedDelayString = "${orderflow.customers.totals.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Long> ids = new ArrayList<>();
+        List<long[]> deltas = new ArrayList<>();
+        totals.forEach((customerId, pending) -> {
+            long orders = pending.orders.sumThenReset();
+            long spentMinor = pending.spentMinor.sumThenReset();
+            if (orders != 0 || spentMinor != 0) {
+                ids.add(customerId);
+                deltas.add(new long[] {orders, spentMinor});
+            }
+        });
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < ids.size(); i++) {
+                    long[] delta = deltas.get(i);
+                    customerRepository.addOrderTotals(ids.get(i), Math.toIntExact(delta[0]),
+                        BigDecimal.valueOf(delta[1], 2));
+                }
+                for (Customer customer : customerRepository.findAllById(ids)) {
+                    customer.autoUpdateSegment();
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Customer totals flush failed, retrying on next interval", e);
+            for (int i = 0; i < ids.size(); i++) {
+                add(ids.get(i), deltas.get(i)[0], deltas.get(i)[1]);
+            }
+        }
+    }
+
+    private void add(Long customerId, long orders, long spentMinor) {
+        Totals pending = totals.computeIfAbsent(customerId, id -> new Totals());
+        pending.orders.add(orders);
+        pending.spentMinor.add(spentMinor);
+    }
+
+    private static long toMinor(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static final class Totals {
+        final LongAdder orders = new LongAdder();
+        final LongAdder spentMinor = new LongAdder();
+    }
+}
@@ -0,0 +1,19 @@
+package com.orderflow.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a new order has been saved with its stock reserved.
+ */
+public class OrderPlacedEvent {
+    private final Long orderId;
+    private final LocalDateTime orderDate;
+
+    public OrderPlacedEvent(Long orderId, LocalDateTime orderDate) {
+        this.orderId = orderId;
+        this.orderDate = orderDate;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+}
@@ -0,0 +1,18 @@
+package com.orderflow.event;
+
+import com.orderflow.model.entity.OutboxEvent;
+import com.orderflow.model.enums.LifecycleEventType;
+
+/**
+ * Downstream consumer of lifecycle events drained from the outbox. Delivery is
+ * at-least-once and in order per aggregate, so implementations must tolerate
+ * seeing an event again. Throwing stops delivery for that aggregate until a retry.
+ */
+public interface OutboxEventListener {
+
+    default boolean supports(LifecycleEventType eventType) {
+        return true;
+    }
+
+    void onEvent(OutboxEvent event);
+}
@@ -0,0 +1,191 @@
+package com.orderflow.event;
+
+import com.orderflow.model.entity.OutboxEvent;
+import com.orderflow.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox table and hands events to the registered listeners.
+ *
+ * Each cycle claims a batch of pending rows with SKIP LOCKED and leases them, so
+ * several nodes can relay at once. Only the oldest pending events of an aggregate
+ * are kept, up to the first one this relay did not claim, which keeps delivery in
+ * order per aggregate. Aggregates are dispatched in parallel on a bounded executor;
+ * within an aggregate events run one after another and a failure stops the rest
+ * until the failed event's retry time. An event is marked processed only after
+ * every listener has accepted it, so a crash leads to redelivery, not loss.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectProvider<OutboxEventListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration retryDelay;
+    private final Duration retention;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ObjectProvider<OutboxEventListener> listeners,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${orderflow.outbox.batch-size:200}") int batchSize,
+                       @Value("${orderflow.outbox.dispatch-threads:4}") int dispatchThreads,
+                       @Value("${orderflow.outbox.queue-capacity:1000}") int queueCapacity,
+                       @Value("${orderflow.outbox.lease-seconds:60}") long leaseSeconds,
+                       @Value("${orderflow.outbox.retry-delay-seconds:30}") long retryDelaySeconds,
+                       @Value("${orderflow.outbox.retention-hours:72}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.listeners = listeners;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retryDelay = Duration.ofSeconds(retryDelaySeconds);
+        this.retention = Duration.ofHours(retentionHours);
+        // A full queue makes the relay thread run the task itself instead of claiming more
+        this.executor = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${orderflow.outbox.poll-interval-ms:500}")
+    public void relay() {
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> claim());
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+        for (OutboxEvent event : claimed) {
+            byAggregate.computeIfAbsent(aggregateKey(event.getAggregateType(), event.getAggregateId()),
+                key -> new ArrayList<>()).add(event);
+        }
+
+        Set<Long> processed = ConcurrentHashMap.newKeySet();
+        Set<Long> failed = ConcurrentHashMap.newKeySet();
+        Set<Long> skipped = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(byAggregate.size());
+        for (List<OutboxEvent> events : byAggregate.values()) {
+            tasks.add(CompletableFuture.runAsync(() -> dispatch(events, processed, failed, skipped), executor));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!processed.isEmpty()) {
+                outboxEventRepository.markProcessed(processed, now);
+            }
+            for (Long id : failed) {
+                outboxEventRepository.scheduleRetry(id, now.plus(retryDelay));
+            }
+            if (!skipped.isEmpty()) {
+                // Still held back by the failed event ahead of them, which now carries the retry time
+                outboxEventRepository.releaseLeases(skipped);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${orderflow.outbox.purge-interval-ms:3600000}")
+    public void purgeProcessed() {
+        transactionTemplate.executeWithoutResult(status ->
+            outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention)));
+    }
+
+    private List<OutboxEvent> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> candidates = outboxEventRepository.claimPending(now, PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        Set<Long> candidateIds = new HashSet<>();
+        Set<Long> aggregateIds = new HashSet<>();
+        for (OutboxEvent event : candidates) {
+            candidateIds.add(event.getId());
+            aggregateIds.add(event.getAggregateId());
+        }
+
+        // Keep each aggregate's pending events up to the first one not claimed here
+        Set<String> blocked = new HashSet<>();
+        Set<Long> keep = new HashSet<>();
+        for (OutboxEventRepository.PendingEvent pending : outboxEventRepository.findPendingByAggregateIdIn(aggregateIds)) {
+            String key = aggregateKey(pending.getAggregateType(), pending.getAggregateId());
+            if (blocked.contains(key)) {
+                continue;
+            }
+            if (candidateIds.contains(pending.getId())) {
+                keep.add(pending.getId());
+            } else {
+                blocked.add(key);
+            }
+        }
+
+        List<OutboxEvent> claimed = new ArrayList<>(keep.size());
+        LocalDateTime leaseUntil = now.plus(lease);
+        for (OutboxEvent event : candidates) {
+            if (keep.contains(event.getId())) {
+                event.setLeaseUntil(leaseUntil);
+                claimed.add(event);
+            }
+        }
+        return claimed;
+    }
+
+    private void dispatch(List<OutboxEvent> events, Set<Long> processed, Set<Long> failed, Set<Long> skipped) {
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            try {
+                listeners.orderedStream()
+                    .filter(listener -> listener.supports(event.getEventType()))
+                    .forEach(listener -> listener.onEvent(event));
+                processed.add(event.getId());
+            } catch (RuntimeException e) {
+                log.warn("Outbox event {} ({} {} {}) failed, retrying in {}s: {}", event.getId(),
+                    event.getEventType(), event.getAggregateType(), event.getAggregateId(),
+                    retryDelay.toSeconds(), e.getMessage());
+                failed.add(event.getId());
+                for (OutboxEvent rest : events.subList(i + 1, events.size())) {
+                    skipped.add(rest.getId());
+                }
+                return;
+            }
+        }
+    }
+
+    private static String aggregateKey(String aggregateType, Long aggregateId) {
+        return aggregateType + ":" + aggregateId;
+    }
+}
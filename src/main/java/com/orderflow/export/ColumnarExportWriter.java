@@ -0,0 +1,281 @@
+package com.orderflow.export;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Column-oriented export file, laid out like a minimal Parquet file. Rows are cut
+ * into row groups; each column of a group is one zlib-compressed chunk holding a
+ * null bitmap followed by the column's non-null values. A footer at the end holds
+ * the schema and the offset and lengths of every chunk, so a reader can seek to
+ * just the columns it needs.
+ * <pre>
+ *   "OFC1"
+ *   column chunks, row group by row group
+ *   footer:  short version (1)
+ *            int column count, per column: byte type ordinal, byte scale,
+ *                short name length, UTF-8 name
+ *            int row group count, per group: int rows, per column:
+ *                long offset, int stored length, int raw length
+ *            long total rows
+ *   int footer length
+ *   "OFC1"
+ * </pre>
+ * All integers are big-endian. Bit i of a bitmap (least significant first) is set
+ * when row i is not null. LONG is an int64, DECIMAL an int64 unscaled at the
+ * column scale, DATE an int32 epoch day, TIMESTAMP an int64 count of microseconds
+ * since the epoch read as UTC, as the database stores it without a zone, and
+ * STRING an int32 byte length followed by UTF-8 bytes.
+ * <p>
+ * Column values are accumulated in direct buffers and deflated from them into a
+ * direct output buffer that is written to the channel, with no heap copies.
+ */
+final class ColumnarExportWriter implements ExportWriter {
+
+    private static final byte[] MAGIC = {'O', 'F', 'C', '1'};
+    private static final short VERSION = 1;
+    private static final int DECIMAL_SCALE = 2;
+
+    private final FileChannel channel;
+    private final List<ExportColumn> columns;
+    private final int rowGroupRows;
+    private final ByteBuffer out;
+    private final ColumnBuffer[] buffers;
+    private final List<RowGroup> rowGroups = new ArrayList<>();
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private long written;
+    private int rows;
+    private long totalRows;
+
+    ColumnarExportWriter(FileChannel channel, List<ExportColumn> columns, int bufferBytes, int rowGroupRows)
+            throws IOException {
+        this.channel = channel;
+        this.columns = columns;
+        this.rowGroupRows = rowGroupRows;
+        this.out = ByteBuffer.allocateDirect(bufferBytes);
+        this.buffers = new ColumnBuffer[columns.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new ColumnBuffer(rowGroupRows);
+        }
+        out.put(MAGIC);
+    }
+
+    @Override
+    public void writeRow(ResultSet row) throws SQLException, IOException {
+        for (int i = 0; i < buffers.length; i++) {
+            ColumnBuffer column = buffers[i];
+            int index = i + 1;
+            switch (columns.get(i).type) {
+                case LONG -> {
+                    long value = row.getLong(index);
+                    if (!row.wasNull()) {
+                        column.present(rows).ensure(Long.BYTES).putLong(value);
+                    }
+                }
+                case DECIMAL -> {
+                    BigDecimal value = row.getBigDecimal(index);
+                    if (value != null) {
+                        long unscaled = value.setScale(DECIMAL_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+                        column.present(rows).ensure(Long.BYTES).putLong(unscaled);
+                    }
+                }
+                case DATE -> {
+                    LocalDate value = row.getObject(index, LocalDate.class);
+                    if (value != null) {
+                        column.present(rows).ensure(Integer.BYTES).putInt((int) value.toEpochDay());
+                    }
+                }
+                case TIMESTAMP -> {
+                    LocalDateTime value = row.getObject(index, LocalDateTime.class);
+                    if (value != null) {
+                        long micros = value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000;
+                        column.present(rows).ensure(Long.BYTES).putLong(micros);
+                    }
+                }
+                case STRING -> {
+                    String value = row.getString(index);
+                    if (value != null) {
+                        column.present(rows);
+                        putString(column, value);
+                    }
+                }
+            }
+        }
+        if (++rows == rowGroupRows) {
+            writeRowGroup();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (rows > 0) {
+            writeRowGroup();
+        }
+        deflater.end();
+
+        long footerStart = position();
+        ensureOut(Short.BYTES + Integer.BYTES);
+        out.putShort(VERSION).putInt(columns.size());
+        for (ExportColumn column : columns) {
+            byte[] name = column.name.getBytes(StandardCharsets.UTF_8);
+            ensureOut(2 + Short.BYTES + name.length);
+            out.put((byte) column.type.ordinal())
+               .put((byte) (column.type == ExportColumn.Type.DECIMAL ? DECIMAL_SCALE : 0))
+               .putShort((short) name.length)
+               .put(name);
+        }
+        ensureOut(Integer.BYTES);
+        out.putInt(rowGroups.size());
+        for (RowGroup group : rowGroups) {
+            ensureOut(Integer.BYTES);
+            out.putInt(group.rows);
+            for (int i = 0; i < columns.size(); i++) {
+                ensureOut(Long.BYTES + 2 * Integer.BYTES);
+                out.putLong(group.offsets[i]).putInt(group.storedLengths[i]).putInt(group.rawLengths[i]);
+            }
+        }
+        ensureOut(Long.BYTES);
+        out.putLong(totalRows);
+        int footerLength = (int) (position() - footerStart);
+        ensureOut(Integer.BYTES + MAGIC.length);
+        out.putInt(footerLength).put(MAGIC);
+        drain();
+    }
+
+    private void writeRowGroup() throws IOException {
+        RowGroup group = new RowGroup(rows, buffers.length);
+        for (int i = 0; i < buffers.length; i++) {
+            ColumnBuffer column = buffers[i];
+            ByteBuffer bitmap = column.bitmap.limit((rows + 7) >>> 3).position(0);
+            ByteBuffer values = column.values.flip();
+            group.offsets[i] = position();
+            group.rawLengths[i] = bitmap.remaining() + values.remaining();
+
+            deflater.reset();
+            deflater.setInput(bitmap);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+            deflater.setInput(values);
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate();
+            }
+            group.storedLengths[i] = (int) (position() - group.offsets[i]);
+            column.reset();
+        }
+        rowGroups.add(group);
+        totalRows += rows;
+        rows = 0;
+    }
+
+    private void deflate() throws IOException {
+        if (!out.hasRemaining()) {
+            drain();
+        }
+        deflater.deflate(out);
+    }
+
+    private void putString(ColumnBuffer column, String value) {
+        ByteBuffer values = column.ensure(Integer.BYTES + value.length());
+        int lengthAt = values.position();
+        values.position(lengthAt + Integer.BYTES);
+        CharBuffer chars = CharBuffer.wrap(value);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, column.values, true);
+            if (!result.isOverflow()) {
+                break;
+            }
+            // Multi-byte characters ran past the estimate
+            column.ensure(column.values.capacity());
+        }
+        column.values.putInt(lengthAt, column.values.position() - lengthAt - Integer.BYTES);
+    }
+
+    private long position() {
+        return written + out.position();
+    }
+
+    private void ensureOut(int bytes) throws IOException {
+        if (out.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            written += channel.write(out);
+        }
+        out.clear();
+    }
+
+    /** One column's bitmap and values for the row group being filled. */
+    private static final class ColumnBuffer {
+        final ByteBuffer bitmap;
+        ByteBuffer values = ByteBuffer.allocateDirect(64 * 1024);
+
+        ColumnBuffer(int rowGroupRows) {
+            this.bitmap = ByteBuffer.allocateDirect((rowGroupRows + 7) >>> 3);
+        }
+
+        ColumnBuffer present(int row) {
+            int at = row >>> 3;
+            bitmap.put(at, (byte) (bitmap.get(at) | (1 << (row & 7))));
+            return this;
+        }
+
+        /** The values buffer, grown if needed so at least this many bytes fit. */
+        ByteBuffer ensure(int bytes) {
+            if (values.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(values.capacity() * 2, values.position() + bytes));
+                larger.put(values.flip());
+                values = larger;
+            }
+            return values;
+        }
+
+        void reset() {
+            bitmap.clear();
+            for (int i = 0; i < bitmap.capacity(); i++) {
+                bitmap.put(i, (byte) 0);
+            }
+            values.clear();
+        }
+    }
+
+    private static final class RowGroup {
+        final int rows;
+        final long[] offsets;
+        final int[] storedLengths;
+        final int[] rawLengths;
+
+        RowGroup(int rows, int columns) {
+            this.rows = rows;
+            this.offsets = new long[columns];
+            this.storedLengths = new int[columns];
+            this.rawLengths = new int[columns];
+        }
+    }
+}
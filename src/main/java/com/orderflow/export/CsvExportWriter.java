@@ -0,0 +1,173 @@
+package com.orderflow.export;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV with a header row and CRLF line ends, UTF-8 encoded straight into a
+ * direct buffer that is written to the channel whenever it fills. Nulls are empty
+ * fields; dates and timestamps are ISO-8601, amounts plain decimals.
+ */
+final class CsvExportWriter implements ExportWriter {
+
+    private final FileChannel channel;
+    private final List<ExportColumn> columns;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    CsvExportWriter(FileChannel channel, List<ExportColumn> columns, int bufferBytes) throws IOException {
+        this.channel = channel;
+        this.columns = columns;
+        this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                put((byte) ',');
+            }
+            putText(columns.get(i).name);
+        }
+        putLineEnd();
+    }
+
+    @Override
+    public void writeRow(ResultSet row) throws SQLException, IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                put((byte) ',');
+            }
+            int index = i + 1;
+            switch (columns.get(i).type) {
+                case LONG -> {
+                    long value = row.getLong(index);
+                    if (!row.wasNull()) {
+                        putLong(value);
+                    }
+                }
+                case DECIMAL -> {
+                    BigDecimal value = row.getBigDecimal(index);
+                    if (value != null) {
+                        putAscii(value.toPlainString());
+                    }
+                }
+                case STRING -> {
+                    String value = row.getString(index);
+                    if (value != null) {
+                        putText(value);
+                    }
+                }
+                case DATE -> {
+                    LocalDate value = row.getObject(index, LocalDate.class);
+                    if (value != null) {
+                        putAscii(value.toString());
+                    }
+                }
+                case TIMESTAMP -> {
+                    LocalDateTime value = row.getObject(index, LocalDateTime.class);
+                    if (value != null) {
+                        putAscii(value.toString());
+                    }
+                }
+            }
+        }
+        putLineEnd();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        drain();
+    }
+
+    private void putText(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            encode(value);
+            return;
+        }
+        put((byte) '"');
+        encode(value.replace("\"", "\"\""));
+        put((byte) '"');
+    }
+
+    private void encode(String value) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(value);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (!result.isOverflow()) {
+                break;
+            }
+            drain();
+        }
+    }
+
+    private void putAscii(String value) throws IOException {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    private void putLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            putAscii(Long.toString(value));
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int start = buffer.position();
+        do {
+            buffer.put((byte) ('0' + value % 10));
+            value /= 10;
+        } while (value != 0);
+        // Digits went in least significant first
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            byte digit = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, digit);
+        }
+    }
+
+    private void putLineEnd() throws IOException {
+        ensure(2);
+        buffer.put((byte) '\r').put((byte) '\n');
+    }
+
+    private void put(byte b) throws IOException {
+        ensure(1);
+        buffer.put(b);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,78 @@
+package com.orderflow.export;
+
+import com.orderflow.model.enums.ExportFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Runs an export query on a forward-only, read-only JDBC cursor and hands each row
+ * to the format's writer, so neither entities nor the full result are ever held.
+ * The cursor fetches fetch-size rows per round trip; auto-commit is off because
+ * PostgreSQL only honours the fetch size inside a transaction.
+ */
+@Component
+public class DatasetExporter {
+
+    private final DataSource dataSource;
+    private final int fetchSize;
+    private final int bufferBytes;
+    private final int rowGroupRows;
+
+    @Autowired
+    public DatasetExporter(DataSource dataSource,
+                           @Value("${orderflow.exports.fetch-size:1000}") int fetchSize,
+                           @Value("${orderflow.exports.buffer-kb:256}") int bufferKb,
+                           @Value("${orderflow.exports.row-group-rows:65536}") int rowGroupRows) {
+        this.dataSource = dataSource;
+        this.fetchSize = fetchSize;
+        this.bufferBytes = bufferKb * 1024;
+        this.rowGroupRows = rowGroupRows;
+    }
+
+    /**
+     * Writes the job's rows to the file, counting them on the job as it goes. An
+     * interrupt, from cancelling the job, stops it between fetches.
+     */
+    public void export(ExportJob job, Path file) throws IOException, SQLException {
+        ExportQuery query = new ExportQuery(job.getDataset(), job.getFrom(), job.getTo(), job.getStatuses());
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement(query.sql(),
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                 FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                statement.setFetchSize(fetchSize);
+                query.bind(statement);
+                ExportWriter writer = job.getFormat() == ExportFormat.CSV
+                    ? new CsvExportWriter(channel, query.columns(), bufferBytes)
+                    : new ColumnarExportWriter(channel, query.columns(), bufferBytes, rowGroupRows);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        writer.writeRow(rows);
+                        job.rowWritten();
+                        if (job.getRows() % fetchSize == 0 && Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Export " + job.getId() + " cancelled");
+                        }
+                    }
+                }
+                writer.finish();
+                channel.force(false);
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+}
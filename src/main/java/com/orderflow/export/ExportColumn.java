@@ -0,0 +1,16 @@
+package com.orderflow.export;
+
+final class ExportColumn {
+
+    enum Type {
+        LONG, DECIMAL, STRING, DATE, TIMESTAMP
+    }
+
+    final String name;
+    final Type type;
+
+    ExportColumn(String name, Type type) {
+        this.name = name;
+        this.type = type;
+    }
+}
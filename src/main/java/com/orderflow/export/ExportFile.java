@@ -0,0 +1,26 @@
+package com.orderflow.export;
+
+import java.nio.file.Path;
+
+/**
+ * A finished export file and how to name and type it in a download.
+ */
+public class ExportFile {
+
+    private final Path path;
+    private final String fileName;
+    private final String contentType;
+    private final long size;
+
+    public ExportFile(Path path, String fileName, String contentType, long size) {
+        this.path = path;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+    }
+
+    public Path getPath() { return path; }
+    public String getFileName() { return fileName; }
+    public String getContentType() { return contentType; }
+    public long getSize() { return size; }
+}
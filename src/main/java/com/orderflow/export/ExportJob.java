@@ -0,0 +1,97 @@
+package com.orderflow.export;
+
+import com.orderflow.model.enums.ExportDataset;
+import com.orderflow.model.enums.ExportFormat;
+import com.orderflow.model.enums.ExportStatus;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * One export request and its progress. Written by the worker running it and read
+ * by status requests, so the mutable state is volatile.
+ */
+public class ExportJob {
+
+    private final String id;
+    private final ExportDataset dataset;
+    private final ExportFormat format;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final List<String> statuses;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile ExportStatus status = ExportStatus.QUEUED;
+    private volatile long rows;
+    private volatile Path file;
+    private volatile long sizeBytes;
+    private volatile String error;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+    private volatile Future<?> future;
+
+    public ExportJob(String id, ExportDataset dataset, ExportFormat format,
+                     LocalDate from, LocalDate to, List<String> statuses) {
+        this.id = id;
+        this.dataset = dataset;
+        this.format = format;
+        this.from = from;
+        this.to = to;
+        this.statuses = List.copyOf(statuses);
+    }
+
+    public void started() {
+        startedAt = LocalDateTime.now();
+        status = ExportStatus.RUNNING;
+    }
+
+    // Only the worker running the job writes the count
+    void rowWritten() {
+        rows++;
+    }
+
+    public void completed(Path file, long sizeBytes) {
+        this.file = file;
+        this.sizeBytes = sizeBytes;
+        completedAt = LocalDateTime.now();
+        status = ExportStatus.COMPLETED;
+    }
+
+    public void failed(String error) {
+        this.error = error;
+        completedAt = LocalDateTime.now();
+        status = ExportStatus.FAILED;
+    }
+
+    public void cancelled() {
+        completedAt = LocalDateTime.now();
+        status = ExportStatus.CANCELLED;
+        Future<?> running = future;
+        if (running != null) {
+            running.cancel(true);
+        }
+    }
+
+    public boolean isFinished() {
+        return status != ExportStatus.QUEUED && status != ExportStatus.RUNNING;
+    }
+
+    public String getId() { return id; }
+    public ExportDataset getDataset() { return dataset; }
+    public ExportFormat getFormat() { return format; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public List<String> getStatuses() { return statuses; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public ExportStatus getStatus() { return status; }
+    public long getRows() { return rows; }
+    public Path getFile() { return file; }
+    public long getSizeBytes() { return sizeBytes; }
+    public String getError() { return error; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setFuture(Future<?> future) { this.future = future; }
+}
@@ -0,0 +1,122 @@
+package com.orderflow.export;
+
+import com.orderflow.export.ExportColumn.Type;
+import com.orderflow.model.enums.ExportDataset;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The SELECT behind each dataset. Columns are read straight off the base tables,
+ * ordered by the filtered date and id so the date indexes drive the scan.
+ */
+final class ExportQuery {
+
+    private static final Map<ExportDataset, Definition> DEFINITIONS = new EnumMap<>(ExportDataset.class);
+
+    static {
+        DEFINITIONS.put(ExportDataset.ORDERS, new Definition("orders", "order_date", true, List.of(
+            new ExportColumn("id", Type.LONG),
+            new ExportColumn("order_number", Type.STRING),
+            new ExportColumn("customer_id", Type.LONG),
+            new ExportColumn("order_date", Type.TIMESTAMP),
+            new ExportColumn("status", Type.STRING),
+            new ExportColumn("customer_segment", Type.STRING),
+            new ExportColumn("subtotal", Type.DECIMAL),
+            new ExportColumn("tax_amount", Type.DECIMAL),
+            new ExportColumn("discount_amount", Type.DECIMAL),
+            new ExportColumn("total_amount", Type.DECIMAL),
+            new ExportColumn("shipping_country", Type.STRING))));
+        DEFINITIONS.put(ExportDataset.INVOICES, new Definition("invoices", "invoice_date", false, List.of(
+            new ExportColumn("id", Type.LONG),
+            new ExportColumn("invoice_number", Type.STRING),
+            new ExportColumn("order_id", Type.LONG),
+            new ExportColumn("customer_id", Type.LONG),
+            new ExportColumn("invoice_date", Type.DATE),
+            new ExportColumn("due_date", Type.DATE),
+            new ExportColumn("status", Type.STRING),
+            new ExportColumn("subtotal", Type.DECIMAL),
+            new ExportColumn("tax_amount", Type.DECIMAL),
+            new ExportColumn("total_amount", Type.DECIMAL),
+            new ExportColumn("paid_amount", Type.DECIMAL),
+            new ExportColumn("paid_at", Type.TIMESTAMP))));
+        // Payments not yet made have no payment date and only appear in undated exports
+        DEFINITIONS.put(ExportDataset.PAYMENTS, new Definition("payments", "payment_date", true, List.of(
+            new ExportColumn("id", Type.LONG),
+            new ExportColumn("reference_number", Type.STRING),
+            new ExportColumn("invoice_id", Type.LONG),
+            new ExportColumn("method", Type.STRING),
+            new ExportColumn("status", Type.STRING),
+            new ExportColumn("amount", Type.DECIMAL),
+            new ExportColumn("payment_date", Type.TIMESTAMP),
+            new ExportColumn("transaction_id", Type.STRING))));
+    }
+
+    private final Definition definition;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final List<String> statuses;
+
+    ExportQuery(ExportDataset dataset, LocalDate from, LocalDate to, List<String> statuses) {
+        this.definition = DEFINITIONS.get(dataset);
+        this.from = from;
+        this.to = to;
+        this.statuses = statuses;
+    }
+
+    List<ExportColumn> columns() {
+        return definition.columns;
+    }
+
+    String sql() {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < definition.columns.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(definition.columns.get(i).name);
+        }
+        sql.append(" FROM ").append(definition.table).append(" WHERE 1 = 1");
+        if (from != null) {
+            sql.append(" AND ").append(definition.dateColumn).append(" >= ?");
+        }
+        if (to != null) {
+            sql.append(" AND ").append(definition.dateColumn).append(" < ?");
+        }
+        if (!statuses.isEmpty()) {
+            sql.append(" AND status IN (").append("?, ".repeat(statuses.size() - 1)).append("?)");
+        }
+        return sql.append(" ORDER BY ").append(definition.dateColumn).append(", id").toString();
+    }
+
+    void bind(PreparedStatement statement) throws SQLException {
+        List<Object> parameters = new ArrayList<>();
+        // The upper bound is exclusive at the start of the day after 'to'
+        if (from != null) {
+            parameters.add(definition.timestamp ? from.atStartOfDay() : from);
+        }
+        if (to != null) {
+            parameters.add(definition.timestamp ? to.plusDays(1).atStartOfDay() : to.plusDays(1));
+        }
+        parameters.addAll(statuses);
+        for (int i = 0; i < parameters.size(); i++) {
+            statement.setObject(i + 1, parameters.get(i));
+        }
+    }
+
+    private static final class Definition {
+        final String table;
+        final String dateColumn;
+        final boolean timestamp;
+        final List<ExportColumn> columns;
+
+        Definition(String table, String dateColumn, boolean timestamp, List<ExportColumn> columns) {
+            this.table = table;
+            this.dateColumn = dateColumn;
+            this.timestamp = timestamp;
+            this.columns = columns;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.orderflow.export;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Encodes result set rows into an export file. Writers read each column with the
+ * typed getter for its type and never materialize entities.
+ */
+interface ExportWriter {
+
+    /** Appends the cursor's current row. */
+    void writeRow(ResultSet row) throws SQLException, IOException;
+
+    /** Writes out anything buffered and any trailer; the file is complete after this. */
+    void finish() throws IOException;
+}
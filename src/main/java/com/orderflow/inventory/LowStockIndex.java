@@ -0,0 +1,210 @@
+package com.orderflow.inventory;
+
+import com.orderflow.model.dto.LowStockEventDTO;
+import com.orderflow.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Set of products whose available stock is at or below their minimum stock level,
+ * kept current without rescanning the products table.
+ * <p>
+ * The set is loaded once at startup. After that, every path that changes stock,
+ * the minimum level or the active flag reports the product id, and once the change
+ * is committed the id is queued. A single drainer reads the queued rows by primary
+ * key and applies them in order, so a burst of orders against one product costs
+ * one lookup per interval. Products that enter or leave the set are pushed to SSE
+ * subscribers as low-stock and low-stock-cleared events.
+ */
+@Component
+public class LowStockIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockIndex.class);
+
+    private static final int LOOKUP_BATCH = 500;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long emitterTimeoutMillis;
+
+    private final Set<Long> lowStock = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private volatile boolean ready;
+
+    @Autowired
+    public LowStockIndex(ProductRepository productRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${orderflow.inventory.low-stock.emitter-timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+    }
+
+    /**
+     * Changes committed while this runs stay queued and are applied by the next drain.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Long> ids = transactionTemplate.execute(status -> productRepository.findLowStockProductIds());
+        lowStock.addAll(ids);
+        ready = true;
+        log.info("Low-stock index loaded with {} products", ids.size());
+    }
+
+    /**
+     * Ids of the products currently low on stock, or empty until the startup load
+     * has finished.
+     */
+    public Optional<List<Long>> lowStockIds() {
+        if (!ready) {
+            return Optional.empty();
+        }
+        List<Long> ids = new ArrayList<>(lowStock);
+        ids.sort(null);
+        return Optional.of(ids);
+    }
+
+    /**
+     * Queues the product for a re-check once the current transaction commits.
+     */
+    public void stockChanged(Long productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.add(productId);
+                }
+            });
+        } else {
+            pending.add(productId);
+        }
+    }
+
+    /**
+     * Queues a batch of products for a re-check once the current transaction commits.
+     */
+    public void stockChanged(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.addAll(ids);
+                }
+            });
+        } else {
+            pending.addAll(ids);
+        }
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        return emitter;
+    }
+
+    /**
+     * Ids are taken off the queue before their rows are read, so a change committed
+     * during the read queues them again rather than being lost.
+     */
+    @Scheduled(fixedDelayString = "${orderflow.inventory.low-stock.refresh-interval-ms:250}")
+    public void drain() {
+        if (!ready || pending.isEmpty()) {
+            return;
+        }
+        List<Long> batch = new ArrayList<>(LOOKUP_BATCH);
+        Iterator<Long> it = pending.iterator();
+        while (it.hasNext()) {
+            batch.add(it.next());
+            it.remove();
+            if (batch.size() == LOOKUP_BATCH || !it.hasNext()) {
+                try {
+                    apply(batch);
+                } catch (RuntimeException e) {
+                    log.error("Low-stock refresh failed, retrying on next interval", e);
+                    pending.addAll(batch);
+                    return;
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private void apply(Collection<Long> ids) {
+        List<ProductRepository.StockState> states = transactionTemplate.execute(
+            status -> productRepository.findStockStates(ids));
+        Set<Long> seen = new HashSet<>();
+        for (ProductRepository.StockState state : states) {
+            seen.add(state.getId());
+            if (isLow(state)) {
+                if (lowStock.add(state.getId())) {
+                    publish("low-stock", event(state, true));
+                }
+            } else if (lowStock.remove(state.getId())) {
+                publish("low-stock-cleared", event(state, false));
+            }
+        }
+        for (Long id : ids) {
+            if (!seen.contains(id) && lowStock.remove(id)) {
+                publish("low-stock-cleared", new LowStockEventDTO(id, null, null, null, null, false, LocalDateTime.now()));
+            }
+        }
+    }
+
+    /** Same predicate as {@link ProductRepository#findLowStockProductIds()}; a null level is never low. */
+    private static boolean isLow(ProductRepository.StockState state) {
+        return Boolean.TRUE.equals(state.getActive())
+            && state.getMinStockLevel() != null
+            && state.getQuantityInStock() - state.getReservedQuantity() <= state.getMinStockLevel();
+    }
+
+    private static LowStockEventDTO event(ProductRepository.StockState state, boolean low) {
+        return new LowStockEventDTO(state.getId(), state.getSku(), state.getName(),
+            state.getQuantityInStock() - state.getReservedQuantity(), state.getMinStockLevel(), low,
+            LocalDateTime.now());
+    }
+
+    private void publish(String name, LowStockEventDTO event) {
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event()
+                    .name(name)
+                    .data(event, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container completes the emitter
+                subscribers.remove(emitter);
+            }
+        }
+    }
+}
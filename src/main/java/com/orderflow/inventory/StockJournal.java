@@ -0,0 +1,228 @@
+package com.orderflow.inventory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only local journal of ledger deltas not yet written to the database.
+ * Records are fixed 16 bytes (product id, stock delta, reserved delta) in numbered
+ * segment files; a segment is deleted once the flush that covers it has committed.
+ * Segment numbers keep rising across restarts, so the ledger's watermark of the
+ * last applied segment stays meaningful.
+ * <p>
+ * Appends only write. With fsync enabled a background thread forces the active
+ * segment every fsync interval, so one force covers every record appended since
+ * the last, and callers that need a record on disk wait for that force.
+ */
+class StockJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(StockJournal.class);
+
+    private static final int RECORD_SIZE = 16;
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    interface RecordConsumer {
+        void accept(long productId, int stockDelta, int reservedDelta);
+    }
+
+    private final Path directory;
+    private final boolean fsync;
+    private final long fsyncIntervalMillis;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE);
+    private FileChannel channel;
+    private long segment;
+    private volatile long writtenSequence;
+    private volatile long durableSequence;
+    private final Object durableLock = new Object();
+    private ScheduledExecutorService flusher;
+
+    StockJournal(Path directory, boolean fsync, long fsyncIntervalMillis) {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+    }
+
+    /**
+     * Feeds every record of the segments left by a previous run that are numbered
+     * above appliedSegment to the consumer, and returns the highest segment number
+     * seen or appliedSegment, whichever is larger.
+     */
+    synchronized long replay(long appliedSegment, RecordConsumer consumer) throws IOException {
+        Files.createDirectories(directory);
+        long last = appliedSegment;
+        ByteBuffer read = ByteBuffer.allocate(RECORD_SIZE * 1024);
+        for (long number : segments()) {
+            if (number <= appliedSegment) {
+                // Applied by a flush that committed but did not get to delete it
+                continue;
+            }
+            try (FileChannel in = FileChannel.open(segmentPath(number), StandardOpenOption.READ)) {
+                read.clear();
+                // A torn final record from a crash mid-write is left in the buffer and ignored
+                while (in.read(read) != -1) {
+                    read.flip();
+                    while (read.remaining() >= RECORD_SIZE) {
+                        consumer.accept(read.getLong(), read.getInt(), read.getInt());
+                    }
+                    read.compact();
+                }
+            }
+            last = number;
+        }
+        return last;
+    }
+
+    synchronized void open(long afterSegment) throws IOException {
+        openSegment(afterSegment + 1);
+        if (fsync && flusher == null) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "stock-journal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::sync, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes one record and returns its sequence number, for {@link #awaitDurable}.
+     */
+    synchronized long append(long productId, int stockDelta, int reservedDelta) {
+        buffer.clear();
+        buffer.putLong(productId).putInt(stockDelta).putInt(reservedDelta).flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to stock journal", e);
+        }
+        return ++writtenSequence;
+    }
+
+    /**
+     * Blocks until the record with this sequence number has been forced to disk.
+     * Returns at once when fsync is off.
+     */
+    void awaitDurable(long sequence) {
+        if (!fsync) {
+            return;
+        }
+        synchronized (durableLock) {
+            while (durableSequence < sequence) {
+                try {
+                    durableLock.wait(fsyncIntervalMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the current segment, starts the next one and returns the closed number.
+     */
+    synchronized long rotate() throws IOException {
+        long closed = segment;
+        channel.force(false);
+        markDurable(writtenSequence);
+        channel.close();
+        openSegment(closed + 1);
+        return closed;
+    }
+
+    synchronized void deleteUpTo(long lastSegment) throws IOException {
+        for (long number : segments()) {
+            if (number <= lastSegment) {
+                Files.deleteIfExists(segmentPath(number));
+            }
+        }
+    }
+
+    void close() throws IOException, InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        synchronized (this) {
+            if (channel != null) {
+                channel.force(false);
+                markDurable(writtenSequence);
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Group commit: the force runs outside the append lock, so appends carry on while
+     * the disk catches up. A segment closed by a concurrent rotate was forced there.
+     */
+    private void sync() {
+        long target;
+        FileChannel current;
+        synchronized (this) {
+            target = writtenSequence;
+            current = channel;
+        }
+        if (target <= durableSequence) {
+            return;
+        }
+        try {
+            current.force(false);
+        } catch (ClosedChannelException e) {
+            // Rotated meanwhile
+        } catch (IOException e) {
+            log.error("Stock journal fsync failed", e);
+            return;
+        }
+        markDurable(target);
+    }
+
+    private void markDurable(long sequence) {
+        synchronized (durableLock) {
+            if (sequence > durableSequence) {
+                durableSequence = sequence;
+                durableLock.notifyAll();
+            }
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        segment = number;
+        channel = FileChannel.open(segmentPath(segment),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                numbers.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+            }
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(PREFIX + String.format("%012d", number) + SUFFIX);
+    }
+}
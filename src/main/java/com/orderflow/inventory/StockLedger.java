@@ -0,0 +1,449 @@
+package com.orderflow.inventory;
+
+import com.orderflow.exception.ResourceNotFoundException;
+import com.orderflow.model.entity.StockLedgerWatermark;
+import com.orderflow.repository.ProductRepository;
+import com.orderflow.repository.StockLedgerWatermarkRepository;
+import com.orderflow.service.StockReservationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory stock counters for high-velocity SKUs. Reservations are checked and
+ * applied under a per-stripe lock. A delta made inside a transaction stays in
+ * flight until it commits: only then is it journaled locally and queued to be
+ * written behind to the products table every flush interval, and a rollback just
+ * takes it back out of the counters. On startup any journal left by a crash is
+ * replayed into the database before the ledger accepts operations, so replay only
+ * ever sees committed deltas. With journal-fsync on, the committing thread waits
+ * for the journal's next group fsync, outside any stripe lock.
+ * <p>
+ * Each write to the products table also records the last journal segment it
+ * covers, in the same transaction, and replay skips segments at or below that
+ * watermark, so a crash between the write and the segment delete cannot apply
+ * deltas twice. The one window left open is between a transaction's commit and
+ * the append in its afterCompletion: a crash there loses the delta, and the
+ * committed order's reservation is missing from reserved_quantity.
+ *
+ * Counters are authoritative for this node only; enable it only when a single node
+ * takes orders for the products it manages. Product rows read through JPA lag the
+ * ledger by up to one flush interval.
+ */
+@Service
+@ConditionalOnProperty(name = "orderflow.inventory.ledger.enabled", havingValue = "true")
+public class StockLedger implements StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    private static final long REJECT = Long.MIN_VALUE;
+
+    private final ProductRepository productRepository;
+    private final StockLedgerWatermarkRepository watermarkRepository;
+    private final LowStockIndex lowStockIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final StockJournal journal;
+    private final Stripe[] stripes;
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public StockLedger(ProductRepository productRepository,
+                       StockLedgerWatermarkRepository watermarkRepository,
+                       LowStockIndex lowStockIndex,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${orderflow.inventory.ledger.journal-dir:./data/ledger}") String journalDir,
+                       @Value("${orderflow.inventory.ledger.journal-fsync:true}") boolean journalFsync,
+                       @Value("${orderflow.inventory.ledger.fsync-interval-ms:10}") long fsyncIntervalMillis,
+                       @Value("${orderflow.inventory.ledger.stripes:64}") int stripeCount) {
+        this.productRepository = productRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.lowStockIndex = lowStockIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journal = new StockJournal(Paths.get(journalDir), journalFsync, fsyncIntervalMillis);
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        long appliedSegment = watermarkRepository.findById(StockLedgerWatermark.ID)
+            .map(StockLedgerWatermark::getLastSegment).orElse(0L);
+        Map<Long, int[]> deltas = new HashMap<>();
+        long lastSegment = journal.replay(appliedSegment, (productId, stockDelta, reservedDelta) -> {
+            int[] delta = deltas.computeIfAbsent(productId, id -> new int[2]);
+            delta[0] += stockDelta;
+            delta[1] += reservedDelta;
+        });
+        if (!deltas.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                deltas.forEach((productId, delta) -> productRepository.applyStockDeltas(productId, delta[0], delta[1]));
+                watermarkRepository.save(new StockLedgerWatermark(lastSegment));
+            });
+            log.info("Replayed stock journal for {} products", deltas.size());
+        }
+        journal.deleteUpTo(lastSegment);
+        journal.open(lastSegment);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        flush();
+        journal.close();
+    }
+
+    @Override
+    public boolean reserveStock(Long productId, int quantity) {
+        return update(productId, (stock, reserved) ->
+            stock - reserved < quantity ? REJECT : pack(0, quantity));
+    }
+
+    @Override
+    public void releaseReservedStock(Long productId, int quantity) {
+        update(productId, (stock, reserved) -> pack(0, -Math.min(quantity, reserved)));
+    }
+
+    @Override
+    public boolean reduceStock(Long productId, int quantity) {
+        return update(productId, (stock, reserved) ->
+            stock < quantity ? REJECT : pack(-quantity, -Math.min(quantity, reserved)));
+    }
+
+    @Override
+    public int getAvailableStock(Long productId) {
+        Stripe stripe = stripeFor(productId);
+        while (true) {
+            stripe.lock.lock();
+            try {
+                int slot = stripe.index.get(productId);
+                if (slot != LongIntHashMap.MISSING && !stripe.stale[slot]) {
+                    return stripe.stock[slot] - stripe.reserved[slot];
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+            load(stripe, productId);
+        }
+    }
+
+    @Override
+    public Map<Long, Integer> getAvailableStock(Collection<Long> productIds) {
+        Map<Long, Integer> available = new HashMap<>();
+        for (Long productId : productIds) {
+            try {
+                available.put(productId, getAvailableStock(productId));
+            } catch (ResourceNotFoundException e) {
+                // Left out, as with the table-backed implementation
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Drops the cached base counters after a direct write to the product row, now and
+     * again once the writing transaction commits. Unflushed deltas are kept.
+     */
+    @Override
+    public void invalidate(Long productId) {
+        markStale(productId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markStale(productId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void invalidateAll(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        ids.forEach(this::markStale);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(StockLedger.this::markStale);
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes all pending deltas and the watermark to the database in one
+     * transaction, then drops the journal segments they came from. On failure the
+     * deltas are put back.
+     */
+    @Scheduled(fixedDelayString = "${orderflow.inventory.ledger.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.writeLock().lock();
+        try {
+            long segment;
+            int count = 0;
+            long[] ids = new long[64];
+            int[] stockDeltas = new int[64];
+            int[] reservedDeltas = new int[64];
+
+            for (Stripe stripe : stripes) {
+                stripe.lock.lock();
+            }
+            try {
+                segment = journal.rotate();
+                for (Stripe stripe : stripes) {
+                    for (int slot = 0; slot < stripe.count; slot++) {
+                        if (stripe.pendingStock[slot] == 0 && stripe.pendingReserved[slot] == 0) {
+                            continue;
+                        }
+                        if (count == ids.length) {
+                            ids = Arrays.copyOf(ids, count * 2);
+                            stockDeltas = Arrays.copyOf(stockDeltas, count * 2);
+                            reservedDeltas = Arrays.copyOf(reservedDeltas, count * 2);
+                        }
+                        ids[count] = stripe.productIds[slot];
+                        stockDeltas[count] = stripe.pendingStock[slot];
+                        reservedDeltas[count] = stripe.pendingReserved[slot];
+                        stripe.pendingStock[slot] = 0;
+                        stripe.pendingReserved[slot] = 0;
+                        count++;
+                    }
+                }
+            } finally {
+                for (Stripe stripe : stripes) {
+                    stripe.lock.unlock();
+                }
+            }
+
+            if (count > 0 && !write(ids, stockDeltas, reservedDeltas, count, segment)) {
+                return;
+            }
+            journal.deleteUpTo(segment);
+        } catch (IOException e) {
+            log.error("Stock journal rotation failed", e);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private boolean write(long[] ids, int[] stockDeltas, int[] reservedDeltas, int count, long segment) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < count; i++) {
+                    productRepository.applyStockDeltas(ids[i], stockDeltas[i], reservedDeltas[i]);
+                }
+                watermarkRepository.save(new StockLedgerWatermark(segment));
+            });
+            // The low-stock index reads the table, so it follows the ledger one flush behind
+            for (int i = 0; i < count; i++) {
+                lowStockIndex.stockChanged(ids[i]);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Stock ledger flush failed, retrying on next interval", e);
+            for (int i = 0; i < count; i++) {
+                Stripe stripe = stripeFor(ids[i]);
+                stripe.lock.lock();
+                try {
+                    int slot = stripe.index.get(ids[i]);
+                    stripe.pendingStock[slot] += stockDeltas[i];
+                    stripe.pendingReserved[slot] += reservedDeltas[i];
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+            return false;
+        }
+    }
+
+    private interface DeltaFunction {
+        long apply(int stock, int reserved);
+    }
+
+    private boolean update(Long productId, DeltaFunction function) {
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        Stripe stripe = stripeFor(productId);
+        int stockDelta;
+        int reservedDelta;
+        long sequence = 0;
+        while (true) {
+            stripe.lock.lock();
+            try {
+                int slot = stripe.index.get(productId);
+                if (slot != LongIntHashMap.MISSING && !stripe.stale[slot]) {
+                    long delta = function.apply(stripe.stock[slot], stripe.reserved[slot]);
+                    if (delta == REJECT) {
+                        return false;
+                    }
+                    stockDelta = (int) (delta >> 32);
+                    reservedDelta = (int) delta;
+                    if (stockDelta == 0 && reservedDelta == 0) {
+                        return true;
+                    }
+                    stripe.stock[slot] += stockDelta;
+                    stripe.reserved[slot] += reservedDelta;
+                    if (inTransaction) {
+                        stripe.inflightStock[slot] += stockDelta;
+                        stripe.inflightReserved[slot] += reservedDelta;
+                    } else {
+                        sequence = commit(stripe, slot, productId, stockDelta, reservedDelta);
+                    }
+                    break;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+            load(stripe, productId);
+        }
+
+        if (!inTransaction) {
+            journal.awaitDurable(sequence);
+            return true;
+        }
+        int committedStock = stockDelta;
+        int committedReserved = reservedDelta;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                settle(productId, committedStock, committedReserved, status != STATUS_ROLLED_BACK);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Resolves an in-flight delta once its transaction has finished: journaled and
+     * queued for the flush if it committed, taken back out of the counters if not.
+     */
+    private void settle(Long productId, int stockDelta, int reservedDelta, boolean committed) {
+        Stripe stripe = stripeFor(productId);
+        long sequence = 0;
+        stripe.lock.lock();
+        try {
+            int slot = stripe.index.get(productId);
+            stripe.inflightStock[slot] -= stockDelta;
+            stripe.inflightReserved[slot] -= reservedDelta;
+            if (committed) {
+                sequence = commit(stripe, slot, productId, stockDelta, reservedDelta);
+            } else {
+                stripe.stock[slot] -= stockDelta;
+                stripe.reserved[slot] -= reservedDelta;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (committed) {
+            journal.awaitDurable(sequence);
+        }
+    }
+
+    // Caller holds the stripe lock, so a flush sees the journal record and the pending delta together
+    private long commit(Stripe stripe, int slot, Long productId, int stockDelta, int reservedDelta) {
+        long sequence = journal.append(productId, stockDelta, reservedDelta);
+        stripe.pendingStock[slot] += stockDelta;
+        stripe.pendingReserved[slot] += reservedDelta;
+        return sequence;
+    }
+
+    private void load(Stripe stripe, Long productId) {
+        flushLock.readLock().lock();
+        try {
+            ProductRepository.StockLevel level = productRepository.findStockLevel(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+            stripe.lock.lock();
+            try {
+                int slot = stripe.index.get(productId);
+                if (slot == LongIntHashMap.MISSING) {
+                    slot = stripe.add(productId);
+                } else if (!stripe.stale[slot]) {
+                    return;
+                }
+                // The database does not yet include this slot's unflushed or uncommitted deltas
+                stripe.stock[slot] = level.getQuantityInStock() + stripe.pendingStock[slot] + stripe.inflightStock[slot];
+                stripe.reserved[slot] = level.getReservedQuantity() + stripe.pendingReserved[slot]
+                    + stripe.inflightReserved[slot];
+                stripe.stale[slot] = false;
+            } finally {
+                stripe.lock.unlock();
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private void markStale(Long productId) {
+        Stripe stripe = stripeFor(productId);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.index.get(productId);
+            if (slot != LongIntHashMap.MISSING) {
+                stripe.stale[slot] = true;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(long productId) {
+        return stripes[Long.hashCode(productId * 0x9E3779B97F4A7C15L) & (stripes.length - 1)];
+    }
+
+    private static long pack(int stockDelta, int reservedDelta) {
+        return ((long) stockDelta << 32) | (reservedDelta & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Counters for the products hashed to one lock, stored as parallel primitive arrays.
+     */
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LongIntHashMap index = new LongIntHashMap(16);
+        long[] productIds = new long[16];
+        int[] stock = new int[16];
+        int[] reserved = new int[16];
+        int[] pendingStock = new int[16];
+        int[] pendingReserved = new int[16];
+        int[] inflightStock = new int[16];
+        int[] inflightReserved = new int[16];
+        boolean[] stale = new boolean[16];
+        int count;
+
+        int add(long productId) {
+            if (count == productIds.length) {
+                int capacity = count * 2;
+                productIds = Arrays.copyOf(productIds, capacity);
+                stock = Arrays.copyOf(stock, capacity);
+                reserved = Arrays.copyOf(reserved, capacity);
+                pendingStock = Arrays.copyOf(pendingStock, capacity);
+                pendingReserved = Arrays.copyOf(pendingReserved, capacity);
+                inflightStock = Arrays.copyOf(inflightStock, capacity);
+                inflightReserved = Arrays.copyOf(inflightReserved, capacity);
+                stale = Arrays.copyOf(stale, capacity);
+            }
+            int slot = count++;
+            productIds[slot] = productId;
+            index.put(productId, slot);
+            return slot;
+        }
+    }
+}
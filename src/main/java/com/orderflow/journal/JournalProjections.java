@@ -0,0 +1,91 @@
+package com.orderflow.journal;
+
+import com.orderflow.model.dto.DailySalesDTO;
+import com.orderflow.model.enums.OrderStatus;
+import com.orderflow.model.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Projections rebuilt by replaying the order journal instead of loading entities.
+ */
+public final class JournalProjections {
+
+    private JournalProjections() {
+    }
+
+    /**
+     * Quantity each product currently has reserved by open orders, according to the journal.
+     */
+    public static Map<Long, Long> reservationsByProduct(OrderJournal journal) {
+        Map<Long, long[]> reserved = new HashMap<>();
+        journal.replay(Long.MIN_VALUE, Long.MAX_VALUE, record -> {
+            long sign;
+            switch (record.getType()) {
+                case ITEM_RESERVED:
+                    sign = 1;
+                    break;
+                case ITEM_RELEASED:
+                case ITEM_SOLD:
+                    sign = -1;
+                    break;
+                default:
+                    return;
+            }
+            reserved.computeIfAbsent(record.getReferenceId(), id -> new long[1])[0] += sign * record.getQuantity();
+        });
+
+        Map<Long, Long> result = new TreeMap<>();
+        reserved.forEach((productId, quantity) -> {
+            if (quantity[0] != 0) {
+                result.put(productId, quantity[0]);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Orders confirmed and payments completed per day in [from, to], by journal time.
+     */
+    public static List<DailySalesDTO> dailySales(OrderJournal journal, LocalDate from, LocalDate to, ZoneId zone) {
+        int days = (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        long[] orders = new long[days];
+        long[] amounts = new long[days];
+        long[] payments = new long[days];
+        long[] dayStarts = new long[days + 1];
+        for (int i = 0; i <= days; i++) {
+            dayStarts[i] = from.plusDays(i).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+
+        int confirmed = OrderStatus.CONFIRMED.ordinal();
+        int completed = PaymentStatus.COMPLETED.ordinal();
+        int[] day = {0};
+        journal.replay(dayStarts[0], dayStarts[days], record -> {
+            // Journal time never goes backwards, so the day index only moves forward
+            while (record.getTimestamp() >= dayStarts[day[0] + 1]) {
+                day[0]++;
+            }
+            JournalRecordType type = record.getType();
+            if (type == JournalRecordType.ORDER_STATUS && record.getStatus() == confirmed) {
+                orders[day[0]]++;
+                amounts[day[0]] += record.getAmount();
+            } else if (type == JournalRecordType.PAYMENT && record.getStatus() == completed) {
+                payments[day[0]] += record.getAmount();
+            }
+        });
+
+        List<DailySalesDTO> result = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            result.add(new DailySalesDTO(from.plusDays(i), orders[i],
+                BigDecimal.valueOf(amounts[i], 2), BigDecimal.valueOf(payments[i], 2)));
+        }
+        return result;
+    }
+}
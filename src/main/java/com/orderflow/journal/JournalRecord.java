@@ -0,0 +1,45 @@
+package com.orderflow.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Read-only view of one journal record inside a mapped segment. Replay reuses a
+ * single instance and moves it from record to record, so nothing is copied or
+ * allocated per record; do not keep a reference after the visitor returns.
+ *
+ * Layout (48 bytes, big-endian): sequence (8), timestamp millis (8), type (1),
+ * status ordinal (1), unused (2), quantity (4), order id (8), reference id (8),
+ * amount in cents (8). The reference is a customer id for ORDER_STATUS, a product
+ * id for item records and a payment id for PAYMENT.
+ */
+public final class JournalRecord {
+
+    static final int SIZE = 48;
+
+    static final int SEQUENCE = 0;
+    static final int TIMESTAMP = 8;
+    static final int TYPE = 16;
+    static final int STATUS = 17;
+    static final int QUANTITY = 20;
+    static final int ORDER_ID = 24;
+    static final int REFERENCE_ID = 32;
+    static final int AMOUNT = 40;
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    JournalRecord wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    public long getSequence() { return buffer.getLong(offset + SEQUENCE); }
+    public long getTimestamp() { return buffer.getLong(offset + TIMESTAMP); }
+    public JournalRecordType getType() { return JournalRecordType.of(buffer.get(offset + TYPE)); }
+    public int getStatus() { return buffer.get(offset + STATUS); }
+    public int getQuantity() { return buffer.getInt(offset + QUANTITY); }
+    public long getOrderId() { return buffer.getLong(offset + ORDER_ID); }
+    public long getReferenceId() { return buffer.getLong(offset + REFERENCE_ID); }
+    public long getAmount() { return buffer.getLong(offset + AMOUNT); }
+}
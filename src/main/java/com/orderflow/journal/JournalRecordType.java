@@ -0,0 +1,11 @@
+package com.orderflow.journal;
+
+public enum JournalRecordType {
+    ORDER_STATUS, ITEM_RESERVED, ITEM_RELEASED, ITEM_SOLD, PAYMENT;
+
+    private static final JournalRecordType[] VALUES = values();
+
+    static JournalRecordType of(int code) {
+        return VALUES[code];
+    }
+}
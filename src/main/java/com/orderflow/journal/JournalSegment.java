@@ -0,0 +1,125 @@
+package com.orderflow.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One pre-sized, memory-mapped journal file. The file is named after the sequence
+ * number of its first record, and record i holds sequence firstSequence + i, so a
+ * slot is valid exactly when it carries its own sequence number. A sparse index
+ * keeps the timestamp of every indexInterval-th record for seeking by time.
+ */
+class JournalSegment {
+
+    final Path path;
+    final long firstSequence;
+    final int capacity;
+    final MappedByteBuffer buffer;
+    private final int indexInterval;
+    private final long[] sampledTimestamps;
+    private volatile int count;
+
+    private JournalSegment(Path path, long firstSequence, int capacity, MappedByteBuffer buffer, int indexInterval) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.capacity = capacity;
+        this.buffer = buffer;
+        this.indexInterval = indexInterval;
+        this.sampledTimestamps = new long[(capacity + indexInterval - 1) / indexInterval];
+    }
+
+    static JournalSegment map(Path path, long firstSequence, int capacity, int indexInterval) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Mapping beyond the end grows the file; the new region reads as zeros
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * JournalRecord.SIZE);
+            JournalSegment segment = new JournalSegment(path, firstSequence, capacity, buffer, indexInterval);
+            segment.recover();
+            return segment;
+        }
+    }
+
+    /**
+     * Finds the end of the written records by binary search, then rebuilds the sparse index.
+     */
+    private void recover() {
+        int low = 0;
+        int high = capacity;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getLong(mid * JournalRecord.SIZE + JournalRecord.SEQUENCE) == firstSequence + mid) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int slot = 0; slot < low; slot += indexInterval) {
+            sampledTimestamps[slot / indexInterval] = buffer.getLong(slot * JournalRecord.SIZE + JournalRecord.TIMESTAMP);
+        }
+        count = low;
+    }
+
+    int count() {
+        return count;
+    }
+
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    long nextSequence() {
+        return firstSequence + count;
+    }
+
+    long lastTimestamp() {
+        return count == 0 ? Long.MIN_VALUE : buffer.getLong((count - 1) * JournalRecord.SIZE + JournalRecord.TIMESTAMP);
+    }
+
+    /**
+     * Writes the next record. The sequence is written last, so a slot only becomes
+     * valid once the rest of the record is in place. Callers serialize appends.
+     */
+    void append(long timestamp, JournalRecordType type, int status, int quantity,
+                long orderId, long referenceId, long amount) {
+        int slot = count;
+        int offset = slot * JournalRecord.SIZE;
+        buffer.putLong(offset + JournalRecord.TIMESTAMP, timestamp);
+        buffer.put(offset + JournalRecord.TYPE, (byte) type.ordinal());
+        buffer.put(offset + JournalRecord.STATUS, (byte) status);
+        buffer.putInt(offset + JournalRecord.QUANTITY, quantity);
+        buffer.putLong(offset + JournalRecord.ORDER_ID, orderId);
+        buffer.putLong(offset + JournalRecord.REFERENCE_ID, referenceId);
+        buffer.putLong(offset + JournalRecord.AMOUNT, amount);
+        buffer.putLong(offset + JournalRecord.SEQUENCE, firstSequence + slot);
+        if (slot % indexInterval == 0) {
+            sampledTimestamps[slot / indexInterval] = timestamp;
+        }
+        count = slot + 1;
+    }
+
+    /**
+     * First slot at or before the earliest record with timestamp >= fromMillis,
+     * found from the sparse index.
+     */
+    int seek(long fromMillis, int limit) {
+        int samples = (limit + indexInterval - 1) / indexInterval;
+        int low = 0;
+        int high = samples;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sampledTimestamps[mid] < fromMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return Math.max(0, low - 1) * indexInterval;
+    }
+
+    void force() {
+        buffer.force();
+    }
+}
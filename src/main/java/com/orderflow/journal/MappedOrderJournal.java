@@ -0,0 +1,250 @@
+package com.orderflow.journal;
+
+import com.orderflow.model.entity.Order;
+import com.orderflow.model.entity.Payment;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Order journal in fixed-size, memory-mapped segment files. Appends are plain
+ * stores into the mapped region under one lock. A dedicated thread forces dirty
+ * pages to disk every fsync interval, so one fsync covers every record appended
+ * since the last one. With sync-commit enabled the committing thread waits for
+ * that fsync. Replay reads records straight out of the mapped segments.
+ */
+@Component
+@ConditionalOnProperty(name = "orderflow.journal.enabled", havingValue = "true")
+public class MappedOrderJournal implements OrderJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedOrderJournal.class);
+
+    private static final String PREFIX = "orders-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final int indexInterval;
+    private final long fsyncIntervalMillis;
+    private final boolean syncCommit;
+
+    private final List<JournalSegment> segments = new ArrayList<>();
+    private volatile JournalSegment active;
+    private long lastTimestamp;
+    private volatile long writtenSequence;
+    private volatile long durableSequence;
+    private final Object durableLock = new Object();
+    private ScheduledExecutorService flusher;
+
+    public MappedOrderJournal(@Value("${orderflow.journal.dir:./data/journal}") String directory,
+                              @Value("${orderflow.journal.segment-size-mb:64}") int segmentSizeMb,
+                              @Value("${orderflow.journal.index-interval:1024}") int indexInterval,
+                              @Value("${orderflow.journal.fsync-interval-ms:10}") long fsyncIntervalMillis,
+                              @Value("${orderflow.journal.sync-commit:false}") boolean syncCommit) {
+        this.directory = Paths.get(directory);
+        this.segmentCapacity = (int) ((long) segmentSizeMb * 1024 * 1024 / JournalRecord.SIZE);
+        this.indexInterval = indexInterval;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.syncCommit = syncCommit;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                files.put(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())), file);
+            }
+        }
+        for (Map.Entry<Long, Path> file : files.entrySet()) {
+            // Existing segments keep the size they were created with
+            int capacity = (int) Math.max(1, Files.size(file.getValue()) / JournalRecord.SIZE);
+            segments.add(JournalSegment.map(file.getValue(), file.getKey(), capacity, indexInterval));
+        }
+        if (segments.isEmpty()) {
+            segments.add(JournalSegment.map(segmentPath(1), 1, segmentCapacity, indexInterval));
+        }
+        active = segments.get(segments.size() - 1);
+        lastTimestamp = active.lastTimestamp();
+        writtenSequence = active.nextSequence() - 1;
+        durableSequence = writtenSequence;
+        log.info("Order journal opened with {} segments, next sequence {}", segments.size(), active.nextSequence());
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-journal-fsync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::sync, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(1, TimeUnit.SECONDS);
+        sync();
+    }
+
+    @Override
+    public void recordOrder(Order order) {
+        long customerId = order.getCustomer() == null ? 0 : order.getCustomer().getId();
+        long total = toMinor(order.getTotalAmount());
+        int status = order.getStatus().ordinal();
+        long orderId = order.getId();
+        afterCommit(() -> append(JournalRecordType.ORDER_STATUS, status, 0, orderId, customerId, total));
+    }
+
+    @Override
+    public void recordItems(Long orderId, Map<Long, Integer> quantitiesByProduct, JournalRecordType type) {
+        Map<Long, Integer> quantities = Map.copyOf(quantitiesByProduct);
+        afterCommit(() -> quantities.forEach((productId, quantity) ->
+            append(type, 0, quantity, orderId, productId, 0)));
+    }
+
+    @Override
+    public void recordPayment(Payment payment, Long orderId) {
+        long paymentId = payment.getId();
+        long amount = toMinor(payment.getAmount());
+        int status = payment.getStatus().ordinal();
+        afterCommit(() -> append(JournalRecordType.PAYMENT, status, 0, orderId, paymentId, amount));
+    }
+
+    @Override
+    public long replay(long fromMillis, long toMillis, Consumer<JournalRecord> visitor) {
+        List<JournalSegment> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(segments);
+        }
+        JournalRecord record = new JournalRecord();
+        long visited = 0;
+        for (JournalSegment segment : snapshot) {
+            int limit = segment.count();
+            if (limit == 0 || segment.lastTimestamp() < fromMillis) {
+                continue;
+            }
+            ByteBuffer buffer = segment.buffer.duplicate();
+            for (int slot = segment.seek(fromMillis, limit); slot < limit; slot++) {
+                record.wrap(buffer, slot * JournalRecord.SIZE);
+                long timestamp = record.getTimestamp();
+                if (timestamp >= toMillis) {
+                    return visited;
+                }
+                if (timestamp >= fromMillis) {
+                    visitor.accept(record);
+                    visited++;
+                }
+            }
+        }
+        return visited;
+    }
+
+    private synchronized long append(JournalRecordType type, int status, int quantity,
+                                     long orderId, long referenceId, long amount) {
+        try {
+            if (active.isFull()) {
+                roll();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start a new order journal segment", e);
+        }
+        // Timestamps never go backwards, so replay can seek and stop by time
+        lastTimestamp = Math.max(lastTimestamp, System.currentTimeMillis());
+        long sequence = active.nextSequence();
+        active.append(lastTimestamp, type, status, quantity, orderId, referenceId, amount);
+        writtenSequence = sequence;
+        return sequence;
+    }
+
+    private void roll() throws IOException {
+        active.force();
+        JournalSegment next = JournalSegment.map(segmentPath(active.nextSequence()), active.nextSequence(),
+            segmentCapacity, indexInterval);
+        segments.add(next);
+        active = next;
+    }
+
+    /**
+     * Group commit: one force covers everything appended since the previous one.
+     * Rolled segments are forced when they fill, so only the active one is forced here.
+     */
+    private void sync() {
+        long target = writtenSequence;
+        if (target <= durableSequence) {
+            return;
+        }
+        try {
+            active.force();
+        } catch (RuntimeException e) {
+            log.error("Order journal fsync failed", e);
+            return;
+        }
+        synchronized (durableLock) {
+            durableSequence = target;
+            durableLock.notifyAll();
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        synchronized (durableLock) {
+            while (durableSequence < sequence) {
+                try {
+                    durableLock.wait(fsyncIntervalMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void afterCommit(Runnable append) {
+        Runnable task = syncCommit ? () -> {
+            append.run();
+            awaitDurable(writtenSequence);
+        } : append;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(PREFIX + String.format("%016d", firstSequence) + SUFFIX);
+    }
+
+    private static long toMinor(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
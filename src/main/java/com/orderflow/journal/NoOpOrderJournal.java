@@ -0,0 +1,34 @@
+package com.orderflow.journal;
+
+import com.orderflow.model.entity.Order;
+import com.orderflow.model.entity.Payment;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Used when the order journal is disabled.
+ */
+@Component
+@ConditionalOnProperty(name = "orderflow.journal.enabled", havingValue = "false", matchIfMissing = true)
+public class NoOpOrderJournal implements OrderJournal {
+
+    @Override
+    public void recordOrder(Order order) {
+    }
+
+    @Override
+    public void recordItems(Long orderId, Map<Long, Integer> quantitiesByProduct, JournalRecordType type) {
+    }
+
+    @Override
+    public void recordPayment(Payment payment, Long orderId) {
+    }
+
+    @Override
+    public long replay(long fromMillis, long toMillis, Consumer<JournalRecord> visitor) {
+        return 0;
+    }
+}
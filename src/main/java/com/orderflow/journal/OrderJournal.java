@@ -0,0 +1,26 @@
+package com.orderflow.journal;
+
+import com.orderflow.model.entity.Order;
+import com.orderflow.model.entity.Payment;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Append-only audit journal of order, reservation and payment changes. Records
+ * are appended once the surrounding transaction commits.
+ */
+public interface OrderJournal {
+
+    void recordOrder(Order order);
+
+    void recordItems(Long orderId, Map<Long, Integer> quantitiesByProduct, JournalRecordType type);
+
+    void recordPayment(Payment payment, Long orderId);
+
+    /**
+     * Feeds every record with fromMillis <= timestamp < toMillis to the visitor in
+     * sequence order and returns how many were visited.
+     */
+    long replay(long fromMillis, long toMillis, Consumer<JournalRecord> visitor);
+}
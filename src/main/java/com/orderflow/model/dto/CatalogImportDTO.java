@@ -0,0 +1,48 @@
+package com.orderflow.model.dto;
+
+import com.orderflow.model.enums.ImportStatus;
+
+import java.time.LocalDateTime;
+
+public class CatalogImportDTO {
+    private String id;
+    private String fileName;
+    private ImportStatus status;
+    private long sizeBytes;
+    private long bytesProcessed;
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    private long failed;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    public ImportStatus getStatus() { return status; }
+    public void setStatus(ImportStatus status) { this.status = status; }
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+    public long getBytesProcessed() { return bytesProcessed; }
+    public void setBytesProcessed(long bytesProcessed) { this.bytesProcessed = bytesProcessed; }
+    public long getRowsRead() { return rowsRead; }
+    public void setRowsRead(long rowsRead) { this.rowsRead = rowsRead; }
+    public long getInserted() { return inserted; }
+    public void setInserted(long inserted) { this.inserted = inserted; }
+    public long getUpdated() { return updated; }
+    public void setUpdated(long updated) { this.updated = updated; }
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,38 @@
+package com.orderflow.model.dto;
+
+import java.util.List;
+
+/**
+ * Immutable node of the category tree snapshot.
+ */
+public class CategoryNodeDTO {
+    private final Long id;
+    private final String code;
+    private final String name;
+    private final String description;
+    private final Boolean active;
+    private final String path;
+    private final int depth;
+    private final List<CategoryNodeDTO> children;
+
+    public CategoryNodeDTO(Long id, String code, String name, String description, Boolean active,
+                           String path, int depth, List<CategoryNodeDTO> children) {
+        this.id = id;
+        this.code = code;
+        this.name = name;
+        this.description = description;
+        this.active = active;
+        this.path = path;
+        this.depth = depth;
+        this.children = List.copyOf(children);
+    }
+
+    public Long getId() { return id; }
+    public String getCode() { return code; }
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public Boolean getActive() { return active; }
+    public String getPath() { return path; }
+    public int getDepth() { return depth; }
+    public List<CategoryNodeDTO> getChildren() { return children; }
+}
@@ -0,0 +1,23 @@
+package com.orderflow.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DailySalesDTO {
+    private LocalDate date;
+    private long confirmedOrders;
+    private BigDecimal confirmedAmount;
+    private BigDecimal paymentsReceived;
+
+    public DailySalesDTO(LocalDate date, long confirmedOrders, BigDecimal confirmedAmount, BigDecimal paymentsReceived) {
+        this.date = date;
+        this.confirmedOrders = confirmedOrders;
+        this.confirmedAmount = confirmedAmount;
+        this.paymentsReceived = paymentsReceived;
+    }
+
+    public LocalDate getDate() { return date; }
+    public long getConfirmedOrders() { return confirmedOrders; }
+    public BigDecimal getConfirmedAmount() { return confirmedAmount; }
+    public BigDecimal getPaymentsReceived() { return paymentsReceived; }
+}
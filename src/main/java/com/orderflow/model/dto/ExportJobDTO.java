@@ -0,0 +1,52 @@
+package com.orderflow.model.dto;
+
+import com.orderflow.model.enums.ExportDataset;
+import com.orderflow.model.enums.ExportFormat;
+import com.orderflow.model.enums.ExportStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ExportJobDTO {
+    private String id;
+    private ExportDataset dataset;
+    private ExportFormat format;
+    private LocalDate from;
+    private LocalDate to;
+    private List<String> statuses;
+    private ExportStatus status;
+    private long rows;
+    private Long sizeBytes;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public ExportDataset getDataset() { return dataset; }
+    public void setDataset(ExportDataset dataset) { this.dataset = dataset; }
+    public ExportFormat getFormat() { return format; }
+    public void setFormat(ExportFormat format) { this.format = format; }
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+    public List<String> getStatuses() { return statuses; }
+    public void setStatuses(List<String> statuses) { this.statuses = statuses; }
+    public ExportStatus getStatus() { return status; }
+    public void setStatus(ExportStatus status) { this.status = status; }
+    public long getRows() { return rows; }
+    public void setRows(long rows) { this.rows = rows; }
+    public Long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(Long sizeBytes) { this.sizeBytes = sizeBytes; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,31 @@
+package com.orderflow.model.dto;
+
+import com.orderflow.model.enums.ExportDataset;
+import com.orderflow.model.enums.ExportFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * What to export. Dates are inclusive and filter on the order, invoice or payment
+ * date; either end may be left open. Statuses are names from the dataset's own
+ * status enum; none means all.
+ */
+public class ExportRequest {
+    private ExportDataset dataset;
+    private ExportFormat format = ExportFormat.CSV;
+    private LocalDate from;
+    private LocalDate to;
+    private List<String> statuses;
+
+    public ExportDataset getDataset() { return dataset; }
+    public void setDataset(ExportDataset dataset) { this.dataset = dataset; }
+    public ExportFormat getFormat() { return format; }
+    public void setFormat(ExportFormat format) { this.format = format; }
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+    public List<String> getStatuses() { return statuses; }
+    public void setStatuses(List<String> statuses) { this.statuses = statuses; }
+}
@@ -0,0 +1,20 @@
+package com.orderflow.model.dto;
+
+/**
+ * A catalog row that was not imported. Lines are counted from 1, the header.
+ */
+public class ImportRowErrorDTO {
+    private final long line;
+    private final String sku;
+    private final String message;
+
+    public ImportRowErrorDTO(long line, String sku, String message) {
+        this.line = line;
+        this.sku = sku;
+        this.message = message;
+    }
+
+    public long getLine() { return line; }
+    public String getSku() { return sku; }
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,33 @@
+package com.orderflow.model.dto;
+
+import com.orderflow.model.enums.OrderStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate order activity on this node: SKUs with the most units ordered and
+ * orders reaching each status within the window, and distinct customers with an
+ * order confirmed today.
+ */
+public class LiveSalesDTO {
+    private final int windowMinutes;
+    private final List<SkuCountDTO> topSkus;
+    private final long distinctCustomersToday;
+    private final Map<OrderStatus, Long> ordersByStatus;
+
+    public LiveSalesDTO(int windowMinutes, List<SkuCountDTO> topSkus, long distinctCustomersToday,
+                        Map<OrderStatus, Long> ordersByStatus) {
+        this.windowMinutes = windowMinutes;
+        this.topSkus = List.copyOf(topSkus);
+        this.distinctCustomersToday = distinctCustomersToday;
+        this.ordersByStatus = Collections.unmodifiableMap(new EnumMap<>(ordersByStatus));
+    }
+
+    public int getWindowMinutes() { return windowMinutes; }
+    public List<SkuCountDTO> getTopSkus() { return topSkus; }
+    public long getDistinctCustomersToday() { return distinctCustomersToday; }
+    public Map<OrderStatus, Long> getOrdersByStatus() { return ordersByStatus; }
+}
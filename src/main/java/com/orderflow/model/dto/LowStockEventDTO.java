@@ -0,0 +1,35 @@
+package com.orderflow.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pushed to low-stock subscribers when a product crosses its minimum stock level.
+ */
+public class LowStockEventDTO {
+    private final Long productId;
+    private final String sku;
+    private final String name;
+    private final Integer availableStock;
+    private final Integer minStockLevel;
+    private final boolean lowStock;
+    private final LocalDateTime occurredAt;
+
+    public LowStockEventDTO(Long productId, String sku, String name, Integer availableStock,
+                            Integer minStockLevel, boolean lowStock, LocalDateTime occurredAt) {
+        this.productId = productId;
+        this.sku = sku;
+        this.name = name;
+        this.availableStock = availableStock;
+        this.minStockLevel = minStockLevel;
+        this.lowStock = lowStock;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getProductId() { return productId; }
+    public String getSku() { return sku; }
+    public String getName() { return name; }
+    public Integer getAvailableStock() { return availableStock; }
+    public Integer getMinStockLevel() { return minStockLevel; }
+    public boolean isLowStock() { return lowStock; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+}
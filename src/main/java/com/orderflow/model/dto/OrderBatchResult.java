@@ -0,0 +1,38 @@
+package com.orderflow.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.orderflow.model.entity.Order;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderBatchResult {
+    private int line;
+    private Long orderId;
+    private String orderNumber;
+    private String error;
+
+    public static OrderBatchResult created(int line, Order order) {
+        OrderBatchResult result = new OrderBatchResult();
+        result.setLine(line);
+        result.setOrderId(order.getId());
+        result.setOrderNumber(order.getOrderNumber());
+        return result;
+    }
+
+    public static OrderBatchResult failed(int line, String error) {
+        OrderBatchResult result = new OrderBatchResult();
+        result.setLine(line);
+        result.setError(error);
+        return result;
+    }
+
+    public boolean isSuccess() { return error == null; }
+
+    public int getLine() { return line; }
+    public void setLine(int line) { this.line = line; }
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,20 @@
+package com.orderflow.model.dto;
+
+import java.util.List;
+
+public class OrderPageDTO {
+    private List<OrderResponseDTO> orders;
+    private String nextCursor;
+
+    public OrderPageDTO() {}
+
+    public OrderPageDTO(List<OrderResponseDTO> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderResponseDTO> getOrders() { return orders; }
+    public void setOrders(List<OrderResponseDTO> orders) { this.orders = orders; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
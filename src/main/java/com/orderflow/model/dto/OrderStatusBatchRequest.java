@@ -0,0 +1,15 @@
+package com.orderflow.model.dto;
+
+import com.orderflow.model.enums.OrderStatus;
+
+import java.util.List;
+
+public class OrderStatusBatchRequest {
+    private List<Long> orderIds;
+    private OrderStatus status;
+
+    public List<Long> getOrderIds() { return orderIds; }
+    public void setOrderIds(List<Long> orderIds) { this.orderIds = orderIds; }
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+}
@@ -0,0 +1,34 @@
+package com.orderflow.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.orderflow.model.enums.OrderStatus;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderStatusResult {
+    private Long orderId;
+    private String status;
+    private String error;
+
+    public static OrderStatusResult updated(Long orderId, OrderStatus status) {
+        OrderStatusResult result = new OrderStatusResult();
+        result.setOrderId(orderId);
+        result.setStatus(status.name());
+        return result;
+    }
+
+    public static OrderStatusResult failed(Long orderId, String error) {
+        OrderStatusResult result = new OrderStatusResult();
+        result.setOrderId(orderId);
+        result.setError(error);
+        return result;
+    }
+
+    public boolean isSuccess() { return error == null; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,23 @@
+package com.orderflow.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class SalesDayDTO {
+    private final LocalDate date;
+    private final long orders;
+    private final long units;
+    private final BigDecimal revenue;
+
+    public SalesDayDTO(LocalDate date, long orders, long units, BigDecimal revenue) {
+        this.date = date;
+        this.orders = orders;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getDate() { return date; }
+    public long getOrders() { return orders; }
+    public long getUnits() { return units; }
+    public BigDecimal getRevenue() { return revenue; }
+}
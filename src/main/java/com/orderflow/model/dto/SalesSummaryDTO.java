@@ -0,0 +1,34 @@
+package com.orderflow.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sales totals over [from, to] with the days that had any sales.
+ */
+public class SalesSummaryDTO {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final long orders;
+    private final long units;
+    private final BigDecimal revenue;
+    private final List<SalesDayDTO> days;
+
+    public SalesSummaryDTO(LocalDate from, LocalDate to, long orders, long units, BigDecimal revenue,
+                           List<SalesDayDTO> days) {
+        this.from = from;
+        this.to = to;
+        this.orders = orders;
+        this.units = units;
+        this.revenue = revenue;
+        this.days = List.copyOf(days);
+    }
+
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public long getOrders() { return orders; }
+    public long getUnits() { return units; }
+    public BigDecimal getRevenue() { return revenue; }
+    public List<SalesDayDTO> getDays() { return days; }
+}
@@ -0,0 +1,25 @@
+package com.orderflow.model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Sales of one product, category or customer segment over a date range.
+ */
+public class SalesTotalsDTO {
+    private final String key;
+    private final long orders;
+    private final long units;
+    private final BigDecimal revenue;
+
+    public SalesTotalsDTO(String key, long orders, long units, BigDecimal revenue) {
+        this.key = key;
+        this.orders = orders;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public String getKey() { return key; }
+    public long getOrders() { return orders; }
+    public long getUnits() { return units; }
+    public BigDecimal getRevenue() { return revenue; }
+}
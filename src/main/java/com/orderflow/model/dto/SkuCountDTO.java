@@ -0,0 +1,14 @@
+package com.orderflow.model.dto;
+
+public class SkuCountDTO {
+    private final String sku;
+    private final long units;
+
+    public SkuCountDTO(String sku, long units) {
+        this.sku = sku;
+        this.units = units;
+    }
+
+    public String getSku() { return sku; }
+    public long getUnits() { return units; }
+}
@@ -0,0 +1,11 @@
+package com.orderflow.model.dto;
+
+public class StockAdjustmentRequest {
+    private Long productId;
+    private Integer quantity;
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
@@ -0,0 +1,38 @@
+package com.orderflow.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockAdjustmentResult {
+    private Long productId;
+    private Integer quantity;
+    private Integer quantityInStock;
+    private String error;
+
+    public static StockAdjustmentResult applied(Long productId, Integer quantity, int quantityInStock) {
+        StockAdjustmentResult result = new StockAdjustmentResult();
+        result.setProductId(productId);
+        result.setQuantity(quantity);
+        result.setQuantityInStock(quantityInStock);
+        return result;
+    }
+
+    public static StockAdjustmentResult failed(Long productId, Integer quantity, String error) {
+        StockAdjustmentResult result = new StockAdjustmentResult();
+        result.setProductId(productId);
+        result.setQuantity(quantity);
+        result.setError(error);
+        return result;
+    }
+
+    public boolean isSuccess() { return error == null; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    public Integer getQuantityInStock() { return quantityInStock; }
+    public void setQuantityInStock(Integer quantityInStock) { this.quantityInStock = quantityInStock; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -18,8 +18,10 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity {
 
+    // Pooled sequence ids keep Hibernate JDBC insert batching enabled
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orderflow_id_seq")
+    @SequenceGenerator(name = "orderflow_id_seq", sequenceName = "orderflow_id_seq", allocationSize = 50)
     private Long id;
 
     @CreatedDate
@@ -1,12 +1,14 @@
 package com.orderflow.model.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "categories", indexes = {
-    @Index(name = "idx_category_code", columnList = "code")
+    @Index(name = "idx_category_code", columnList = "code"),
+    @Index(name = "idx_category_path", columnList = "path")
 })
 public class Category extends BaseEntity {
 
@@ -32,6 +34,15 @@ public class Category extends BaseEntity {
     @Column(name = "active", nullable = false)
     private Boolean active = true;
 
+    // Materialized path of ids from the root, e.g. /3/17/42/; maintained by CategoryServiceImpl
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "path", length = 1000)
+    private String path;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "depth")
+    private Integer depth;
+
     // Constructors
     public Category() {}
 
@@ -56,4 +67,10 @@ public class Category extends BaseEntity {
 
     public Boolean getActive() { return active; }
     public void setActive(Boolean active) { this.active = active; }
+
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+
+    public Integer getDepth() { return depth; }
+    public void setDepth(Integer depth) { this.depth = depth; }
 }
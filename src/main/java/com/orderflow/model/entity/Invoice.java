@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "invoices", indexes = {
     @Index(name = "idx_invoice_number", columnList = "invoice_number"),
-    @Index(name = "idx_invoice_order", columnList = "order_id")
+    @Index(name = "idx_invoice_order", columnList = "order_id"),
+    @Index(name = "idx_invoice_status_due", columnList = "status, due_date, id"),
+    @Index(name = "idx_invoice_date", columnList = "invoice_date, id")
 })
 public class Invoice extends BaseEntity {
 
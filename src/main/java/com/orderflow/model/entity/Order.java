@@ -1,5 +1,7 @@
 package com.orderflow.model.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.orderflow.model.enums.CustomerSegment;
 import com.orderflow.model.enums.OrderStatus;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
@@ -11,7 +13,9 @@ import java.util.List;
 @Table(name = "orders", indexes = {
     @Index(name = "idx_order_number", columnList = "order_number"),
     @Index(name = "idx_order_customer", columnList = "customer_id"),
-    @Index(name = "idx_order_status", columnList = "status")
+    @Index(name = "idx_order_status", columnList = "status"),
+    @Index(name = "idx_order_status_date", columnList = "status, order_date"),
+    @Index(name = "idx_order_date", columnList = "order_date, id")
 })
 public class Order extends BaseEntity {
 
@@ -57,6 +61,12 @@ public class Order extends BaseEntity {
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
+    // Segment the order was priced and is reported under, even if the customer's changes later
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "customer_segment", length = 20)
+    private CustomerSegment customerSegment;
+
     // Constructors
     public Order() {}
 
@@ -94,6 +104,9 @@ public class Order extends BaseEntity {
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
 
+    public CustomerSegment getCustomerSegment() { return customerSegment; }
+    public void setCustomerSegment(CustomerSegment customerSegment) { this.customerSegment = customerSegment; }
+
     // Business methods
     public void addItem(OrderItem item) {
         items.add(item);
@@ -1,6 +1,7 @@
 package com.orderflow.model.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 
@@ -35,6 +36,11 @@ public class OrderItem extends BaseEntity {
     @Column(nullable = false, length = 200)
     private String productName;
 
+    // Category of the product when ordered, for sales reporting
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "category_id")
+    private Long categoryId;
+
     // Getters and Setters
     public Order getOrder() { return order; }
     public void setOrder(Order order) { this.order = order; }
@@ -59,4 +65,7 @@ public class OrderItem extends BaseEntity {
 
     public String getProductName() { return productName; }
     public void setProductName(String productName) { this.productName = productName; }
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
 }
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "payments", indexes = {
     @Index(name = "idx_payment_reference", columnList = "reference_number"),
-    @Index(name = "idx_payment_invoice", columnList = "invoice_id")
+    @Index(name = "idx_payment_invoice", columnList = "invoice_id"),
+    @Index(name = "idx_payment_date", columnList = "payment_date, id")
 })
 public class Payment extends BaseEntity {
 
@@ -0,0 +1,78 @@
+package com.orderflow.model.entity;
+
+import com.orderflow.model.enums.RollupDimension;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated sales for one day and one product, category or customer segment.
+ * Counts orders that reached CONFIRMED and were not later cancelled or refunded,
+ * bucketed by order date. Revenue is the sum of line totals, before tax and
+ * order-level discounts. Derived from orders and order_items, and can be rebuilt
+ * from them.
+ */
+@Entity
+@Table(name = "sales_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_sales_rollup_bucket", columnNames = {"dimension", "bucket_date", "dimension_key"})
+})
+public class SalesRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", nullable = false, length = 20)
+    private RollupDimension dimension;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    // Product or category id, or segment name
+    @Column(name = "dimension_key", nullable = false, length = 64)
+    private String dimensionKey;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "units", nullable = false)
+    private long units;
+
+    @Column(name = "revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    public SalesRollup() {}
+
+    public SalesRollup(RollupDimension dimension, LocalDate bucketDate, String dimensionKey,
+                       long orderCount, long units, BigDecimal revenue) {
+        this.dimension = dimension;
+        this.bucketDate = bucketDate;
+        this.dimensionKey = dimensionKey;
+        this.orderCount = orderCount;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public RollupDimension getDimension() { return dimension; }
+    public void setDimension(RollupDimension dimension) { this.dimension = dimension; }
+
+    public LocalDate getBucketDate() { return bucketDate; }
+    public void setBucketDate(LocalDate bucketDate) { this.bucketDate = bucketDate; }
+
+    public String getDimensionKey() { return dimensionKey; }
+    public void setDimensionKey(String dimensionKey) { this.dimensionKey = dimensionKey; }
+
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+
+    public long getUnits() { return units; }
+    public void setUnits(long units) { this.units = units; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
@@ -0,0 +1,37 @@
+package com.orderflow.model.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Last stock journal segment whose deltas are in the products table. Written in
+ * the same transaction as the deltas, so a journal replay after a crash can skip
+ * segments that were applied but not yet deleted. A single row.
+ */
+@Entity
+@Table(name = "stock_ledger_watermarks")
+public class StockLedgerWatermark {
+
+    public static final int ID = 1;
+
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "last_segment", nullable = false)
+    private Long lastSegment;
+
+    // Constructors
+    public StockLedgerWatermark() {}
+
+    public StockLedgerWatermark(Long lastSegment) {
+        this.id = ID;
+        this.lastSegment = lastSegment;
+    }
+
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public Long getLastSegment() { return lastSegment; }
+    public void setLastSegment(Long lastSegment) { this.lastSegment = lastSegment; }
+}
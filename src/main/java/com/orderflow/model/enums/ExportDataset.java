@@ -0,0 +1,22 @@
+package com.orderflow.model.enums;
+
+public enum ExportDataset {
+    ORDERS(OrderStatus.class),
+    INVOICES(InvoiceStatus.class),
+    PAYMENTS(PaymentStatus.class);
+
+    private final Class<? extends Enum<?>> statusType;
+
+    ExportDataset(Class<? extends Enum<?>> statusType) {
+        this.statusType = statusType;
+    }
+
+    public boolean isStatus(String name) {
+        for (Enum<?> status : statusType.getEnumConstants()) {
+            if (status.name().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,18 @@
+package com.orderflow.model.enums;
+
+public enum ExportFormat {
+    CSV("csv", "text/csv"),
+    // Compressed column chunks with a footer index; see ColumnarExportWriter
+    COLUMNAR("ofc", "application/octet-stream");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() { return extension; }
+    public String getContentType() { return contentType; }
+}
@@ -0,0 +1,5 @@
+package com.orderflow.model.enums;
+
+public enum ExportStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+}
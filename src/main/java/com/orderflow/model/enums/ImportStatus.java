@@ -0,0 +1,5 @@
+package com.orderflow.model.enums;
+
+public enum ImportStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
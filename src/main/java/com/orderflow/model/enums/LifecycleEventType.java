@@ -0,0 +1,5 @@
+package com.orderflow.model.enums;
+
+public enum LifecycleEventType {
+    ORDER_CREATED, ORDER_STATUS_CHANGED, ORDER_CANCELLED, PAYMENT_COMPLETED, INVOICE_PAID
+}
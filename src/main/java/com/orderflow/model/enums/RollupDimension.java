@@ -0,0 +1,5 @@
+package com.orderflow.model.enums;
+
+public enum RollupDimension {
+    PRODUCT, CATEGORY, SEGMENT
+}
@@ -0,0 +1,12 @@
+package com.orderflow.pricing;
+
+import com.orderflow.model.entity.Order;
+
+/**
+ * Prices an order whose items already reference their loaded products (with
+ * category) and whose customer is set. Implementations fill in unit price,
+ * discount and line total on every item, and subtotal, tax and total on the order.
+ */
+public interface PricingEngine {
+    void price(Order order);
+}
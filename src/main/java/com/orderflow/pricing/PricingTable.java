@@ -0,0 +1,162 @@
+package com.orderflow.pricing;
+
+import com.orderflow.config.PricingProperties;
+import com.orderflow.model.enums.CustomerSegment;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable lookup compiled from {@link PricingProperties}. Regions and category codes
+ * are mapped to small ints once. Every (region, category, segment) cell holds the
+ * rate of the most specific matching rule (region outranks category, which outranks
+ * segment), so a lookup is two map gets and an array read. Rates are in parts per million.
+ */
+final class PricingTable {
+
+    static final int ANY = 0;
+    static final long PPM = 1_000_000L;
+
+    private final Map<String, Integer> countries;
+    private final Map<String, Map<String, Integer>> states;
+    private final Map<String, Integer> categories;
+    private final int categoryCount;
+    private final int segmentCount;
+    private final int[] taxPpm;
+    private final int[] segmentDiscountPpm;
+
+    private PricingTable(Map<String, Integer> countries, Map<String, Map<String, Integer>> states,
+                         Map<String, Integer> categories, int[] taxPpm, int[] segmentDiscountPpm) {
+        this.countries = countries;
+        this.states = states;
+        this.categories = categories;
+        this.categoryCount = categories.size() + 1;
+        this.segmentCount = CustomerSegment.values().length + 1;
+        this.taxPpm = taxPpm;
+        this.segmentDiscountPpm = segmentDiscountPpm;
+    }
+
+    static PricingTable compile(PricingProperties properties) {
+        Map<String, Integer> regions = new HashMap<>();
+        Map<String, Integer> categories = new HashMap<>();
+        for (PricingProperties.TaxRule rule : properties.getTaxRules()) {
+            if (!isAny(rule.getRegion())) {
+                regions.putIfAbsent(normalize(rule.getRegion()), regions.size() + 1);
+            }
+            if (!isAny(rule.getCategory())) {
+                categories.putIfAbsent(rule.getCategory(), categories.size() + 1);
+            }
+        }
+
+        // Split "country/state" regions so lookups need no string building
+        Map<String, Integer> countries = new HashMap<>();
+        Map<String, Map<String, Integer>> states = new HashMap<>();
+        regions.forEach((region, index) -> {
+            int slash = region.indexOf('/');
+            if (slash < 0) {
+                countries.put(region, index);
+            } else {
+                states.computeIfAbsent(region.substring(0, slash), c -> new HashMap<>())
+                    .put(region.substring(slash + 1), index);
+            }
+        });
+
+        int regionCount = regions.size() + 1;
+        // A country rule also covers the states of that country that have their own rules
+        int[] parent = new int[regionCount];
+        states.forEach((country, byState) -> byState.values().forEach(
+            index -> parent[index] = countries.getOrDefault(country, ANY)));
+
+        int categoryCount = categories.size() + 1;
+        int segmentCount = CustomerSegment.values().length + 1;
+        int[] taxPpm = new int[regionCount * categoryCount * segmentCount];
+        Arrays.fill(taxPpm, toPpm(properties.getDefaultTaxRate()));
+
+        // Paint cells from least to most specific so the most specific rule wins
+        List<PricingProperties.TaxRule> rules = new ArrayList<>(properties.getTaxRules());
+        rules.sort(Comparator.comparingInt(PricingTable::specificity));
+        for (PricingProperties.TaxRule rule : rules) {
+            int region = isAny(rule.getRegion()) ? ANY : regions.get(normalize(rule.getRegion()));
+            int category = isAny(rule.getCategory()) ? ANY : categories.get(rule.getCategory());
+            int segment = isAny(rule.getSegment()) ? ANY : CustomerSegment.valueOf(rule.getSegment()).ordinal() + 1;
+            int rate = toPpm(rule.getRate());
+            for (int r = 0; r < regionCount; r++) {
+                if (region != ANY && r != region && parent[r] != region) continue;
+                for (int c = 0; c < categoryCount; c++) {
+                    if (category != ANY && c != category) continue;
+                    for (int s = 0; s < segmentCount; s++) {
+                        if (segment != ANY && s != segment) continue;
+                        taxPpm[(r * categoryCount + c) * segmentCount + s] = rate;
+                    }
+                }
+            }
+        }
+
+        int[] segmentDiscountPpm = new int[segmentCount];
+        properties.getSegmentDiscounts().forEach((segment, rate) ->
+            segmentDiscountPpm[CustomerSegment.valueOf(segment).ordinal() + 1] = toPpm(rate));
+
+        return new PricingTable(Map.copyOf(countries), copyStates(states), Map.copyOf(categories),
+            taxPpm, segmentDiscountPpm);
+    }
+
+    int region(String country, String state) {
+        if (country == null) {
+            return ANY;
+        }
+        Map<String, Integer> countryStates = states.get(country);
+        if (countryStates != null && state != null) {
+            Integer index = countryStates.get(state);
+            if (index != null) {
+                return index;
+            }
+        }
+        return countries.getOrDefault(country, ANY);
+    }
+
+    int category(String code) {
+        return code == null ? ANY : categories.getOrDefault(code, ANY);
+    }
+
+    static int segment(CustomerSegment segment) {
+        return segment == null ? ANY : segment.ordinal() + 1;
+    }
+
+    int taxPpm(int region, int category, int segment) {
+        return taxPpm[(region * categoryCount + category) * segmentCount + segment];
+    }
+
+    int segmentDiscountPpm(int segment) {
+        return segmentDiscountPpm[segment];
+    }
+
+    private static int specificity(PricingProperties.TaxRule rule) {
+        return (isAny(rule.getRegion()) ? 0 : rule.getRegion().indexOf('/') >= 0 ? 8 : 4)
+            + (isAny(rule.getCategory()) ? 0 : 2)
+            + (isAny(rule.getSegment()) ? 0 : 1);
+    }
+
+    private static boolean isAny(String value) {
+        return value == null || value.isEmpty() || "*".equals(value);
+    }
+
+    private static String normalize(String region) {
+        return region.trim();
+    }
+
+    private static int toPpm(BigDecimal rate) {
+        return rate.movePointRight(6).setScale(0, RoundingMode.HALF_UP).intValueExact();
+    }
+
+    private static Map<String, Map<String, Integer>> copyStates(Map<String, Map<String, Integer>> states) {
+        Map<String, Map<String, Integer>> copy = new HashMap<>();
+        states.forEach((country, byState) -> copy.put(country, Map.copyOf(byState)));
+        return Map.copyOf(copy);
+    }
+}
@@ -0,0 +1,103 @@
+package com.orderflow.pricing;
+
+import com.orderflow.config.PricingProperties;
+import com.orderflow.exception.BadRequestException;
+import com.orderflow.model.entity.Address;
+import com.orderflow.model.entity.Customer;
+import com.orderflow.model.entity.Order;
+import com.orderflow.model.entity.OrderItem;
+import com.orderflow.model.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prices orders from the tax rules and segment discounts in {@link PricingProperties},
+ * compiled once into a {@link PricingTable}. Amounts are carried as long cents:
+ * the segment discount is applied to each line's gross amount, then the item's own
+ * discount, and tax is computed and rounded half-up per line.
+ */
+@Service
+public class RuleBasedPricingEngine implements PricingEngine {
+
+    private static final int SCALE = 2;
+
+    private final PricingTable table;
+
+    @Autowired
+    public RuleBasedPricingEngine(PricingProperties properties) {
+        this.table = PricingTable.compile(properties);
+    }
+
+    @Override
+    public void price(Order order) {
+        Customer customer = order.getCustomer();
+        Address address = shippingAddress(order);
+        int region = address == null ? PricingTable.ANY : table.region(address.getCountry(), address.getState());
+        int segment = PricingTable.segment(customer.getSegment());
+        long segmentDiscountPpm = table.segmentDiscountPpm(segment);
+
+        try {
+            long subtotal = 0;
+            long tax = 0;
+            for (OrderItem item : order.getItems()) {
+                Product product = item.getProduct();
+                long unitPrice = toMinor(product.getPrice());
+                long gross = Math.multiplyExact(unitPrice, (long) item.getQuantity());
+                long segmentDiscount = ppmOf(gross, segmentDiscountPpm);
+                long discount = Math.addExact(segmentDiscount, toMinor(item.getDiscount()));
+                long line = gross - discount;
+
+                int category = product.getCategory() == null
+                    ? PricingTable.ANY : table.category(product.getCategory().getCode());
+                tax = Math.addExact(tax, ppmOf(line, table.taxPpm(region, category, segment)));
+                subtotal = Math.addExact(subtotal, line);
+
+                item.setUnitPrice(product.getPrice());
+                if (segmentDiscount != 0 || item.getDiscount() != null) {
+                    item.setDiscount(toAmount(discount));
+                }
+                item.setLineTotal(toAmount(line));
+            }
+
+            long total = Math.subtractExact(Math.addExact(subtotal, tax), toMinor(order.getDiscountAmount()));
+            order.setSubtotal(toAmount(subtotal));
+            order.setTaxAmount(toAmount(tax));
+            order.setTotalAmount(toAmount(total));
+        } catch (ArithmeticException e) {
+            throw new BadRequestException("Order amounts are out of range");
+        }
+    }
+
+    private static Address shippingAddress(Order order) {
+        if (order.getShippingAddress() != null && order.getShippingAddress().getCountry() != null) {
+            return order.getShippingAddress();
+        }
+        Customer customer = order.getCustomer();
+        if (customer.getShippingAddress() != null && customer.getShippingAddress().getCountry() != null) {
+            return customer.getShippingAddress();
+        }
+        return customer.getBillingAddress();
+    }
+
+    private static long ppmOf(long amount, long ppm) {
+        if (ppm == 0) {
+            return 0;
+        }
+        long scaled = Math.multiplyExact(amount, ppm);
+        return (scaled + (scaled >= 0 ? PricingTable.PPM / 2 : -PricingTable.PPM / 2)) / PricingTable.PPM;
+    }
+
+    private static long toMinor(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal toAmount(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
@@ -2,7 +2,9 @@ package com.orderflow.repository;
 
 import com.orderflow.model.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,6 +12,18 @@ import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    interface ParentLink {
+        Long getId();
+        Long getParentId();
+        String getPath();
+    }
+
+    interface CodeLink {
+        String getCode();
+        Long getId();
+    }
+
     Optional<Category> findByCode(String code);
     List<Category> findByParentIsNull();
     List<Category> findByParent(Category parent);
@@ -17,4 +31,28 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     
     @Query("SELECT c FROM Category c WHERE c.deleted = false AND c.active = true")
     List<Category> findAllActiveCategories();
+
+    @Query("SELECT c FROM Category c WHERE c.deleted = false ORDER BY c.depth, c.name, c.id")
+    List<Category> findAllForTree();
+
+    @Query("SELECT c.code AS code, c.id AS id FROM Category c WHERE c.deleted = false")
+    List<CodeLink> findAllCodeLinks();
+
+    @Query("SELECT c.id AS id, p.id AS parentId, c.path AS path FROM Category c LEFT JOIN c.parent p")
+    List<ParentLink> findAllParentLinks();
+
+    @Modifying
+    @Query("UPDATE Category c SET c.path = :path, c.depth = :depth WHERE c.id = :id")
+    int updatePath(@Param("id") Long id, @Param("path") String path, @Param("depth") int depth);
+
+    /**
+     * Re-roots every category under oldPrefix at newPrefix, e.g. when a category
+     * moves to another parent.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Category c SET c.path = CONCAT(:newPrefix, SUBSTRING(c.path, LENGTH(:oldPrefix) + 1)), " +
+           "c.depth = c.depth + :depthDelta, c.version = c.version + 1 " +
+           "WHERE c.path LIKE CONCAT(:oldPrefix, '%')")
+    int moveSubtree(@Param("oldPrefix") String oldPrefix, @Param("newPrefix") String newPrefix,
+                    @Param("depthDelta") int depthDelta);
 }
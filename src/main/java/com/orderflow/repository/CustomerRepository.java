@@ -2,14 +2,21 @@ package com.orderflow.repository;
 
 import com.orderflow.model.entity.Customer;
 import com.orderflow.model.enums.CustomerSegment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
@@ -19,6 +26,17 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Page<Customer> findByActiveTrue(Pageable pageable);
     boolean existsByEmail(String email);
     
-    @Query("SELECT c FROM Customer c WHERE c.deleted = false AND c.active = true")
-    List<Customer> findAllActiveCustomers();
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Customer c WHERE c.deleted = false AND c.active = true ORDER BY c.id")
+    Stream<Customer> streamAllActiveCustomers();
+
+    // Unguarded: adds the deltas to whatever totals are stored. The version bump makes a
+    // concurrent whole-entity save of the customer fail instead of overwriting them.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Customer c SET c.totalOrders = COALESCE(c.totalOrders, 0) + :orders, " +
+           "c.totalSpent = COALESCE(c.totalSpent, 0) + :spent, c.version = c.version + 1 WHERE c.id = :id")
+    int addOrderTotals(@Param("id") Long id, @Param("orders") int orders, @Param("spent") BigDecimal spent);
 }
@@ -7,10 +7,14 @@ import com.orderflow.model.enums.InvoiceStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,10 +25,21 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     List<Invoice> findByCustomer(Customer customer);
     Page<Invoice> findByCustomer(Customer customer, Pageable pageable);
     List<Invoice> findByStatus(InvoiceStatus status);
-    
-    @Query("SELECT i FROM Invoice i WHERE i.dueDate < CURRENT_DATE AND i.status = 'SENT'")
-    List<Invoice> findOverdueInvoices();
-    
-    @Query("SELECT i FROM Invoice i WHERE i.status = :status AND i.dueDate < :date")
-    List<Invoice> findByStatusAndDueDateBefore(InvoiceStatus status, LocalDate date);
+    Page<Invoice> findByStatus(InvoiceStatus status, Pageable pageable);
+
+    /*
+     * Sweeper chunk: walks the (status, due_date, id) index in order, so LIMIT stops
+     * after one chunk. Swept rows leave the status and are not seen again.
+     */
+    @Query("SELECT i.id FROM Invoice i WHERE i.status = :status AND i.dueDate < :date ORDER BY i.dueDate, i.id")
+    List<Long> findByStatusAndDueDateBefore(@Param("status") InvoiceStatus status, @Param("date") LocalDate date,
+                                            Pageable pageable);
+
+    // Re-checks status and due date, so a chunk racing a payment leaves that invoice alone
+    @Modifying
+    @Query("UPDATE Invoice i SET i.status = :to, i.updatedAt = :now, i.version = i.version + 1 " +
+           "WHERE i.id IN :ids AND i.status = :from AND i.dueDate < :date")
+    int transitionStatus(@Param("ids") Collection<Long> ids, @Param("from") InvoiceStatus from,
+                         @Param("to") InvoiceStatus to, @Param("date") LocalDate date,
+                         @Param("now") LocalDateTime now);
 }
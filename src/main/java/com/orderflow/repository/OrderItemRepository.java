@@ -3,13 +3,60 @@ package com.orderflow.repository;
 import com.orderflow.model.entity.Order;
 import com.orderflow.model.entity.OrderItem;
 import com.orderflow.model.entity.Product;
+import com.orderflow.model.enums.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    interface SalesFact {
+        LocalDate getBucketDate();
+        String getDimensionKey();
+        Long getOrderCount();
+        Long getUnits();
+        BigDecimal getRevenue();
+    }
+
     List<OrderItem> findByOrder(Order order);
     List<OrderItem> findByProduct(Product product);
+
+    /*
+     * Sales grouped by order day, for rebuilding rollups from the raw rows. Items
+     * ordered before the category and segment were recorded on the order fall back
+     * to the current ones.
+     */
+    @Query("SELECT CAST(o.orderDate AS LocalDate) AS bucketDate, CAST(i.product.id AS String) AS dimensionKey, " +
+           "COUNT(DISTINCT o.id) AS orderCount, SUM(i.quantity) AS units, SUM(i.lineTotal) AS revenue " +
+           "FROM OrderItem i JOIN i.order o " +
+           "WHERE o.status IN :statuses AND o.orderDate >= :from AND o.orderDate < :to " +
+           "GROUP BY CAST(o.orderDate AS LocalDate), i.product.id")
+    List<SalesFact> sumSalesByProduct(@Param("statuses") Collection<OrderStatus> statuses,
+                                      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT CAST(o.orderDate AS LocalDate) AS bucketDate, " +
+           "COALESCE(CAST(COALESCE(i.categoryId, c.id) AS String), 'none') AS dimensionKey, " +
+           "COUNT(DISTINCT o.id) AS orderCount, SUM(i.quantity) AS units, SUM(i.lineTotal) AS revenue " +
+           "FROM OrderItem i JOIN i.order o JOIN i.product p LEFT JOIN p.category c " +
+           "WHERE o.status IN :statuses AND o.orderDate >= :from AND o.orderDate < :to " +
+           "GROUP BY CAST(o.orderDate AS LocalDate), COALESCE(CAST(COALESCE(i.categoryId, c.id) AS String), 'none')")
+    List<SalesFact> sumSalesByCategory(@Param("statuses") Collection<OrderStatus> statuses,
+                                       @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT CAST(o.orderDate AS LocalDate) AS bucketDate, " +
+           "CAST(COALESCE(o.customerSegment, cu.segment) AS String) AS dimensionKey, " +
+           "COUNT(DISTINCT o.id) AS orderCount, SUM(i.quantity) AS units, SUM(i.lineTotal) AS revenue " +
+           "FROM OrderItem i JOIN i.order o JOIN o.customer cu " +
+           "WHERE o.status IN :statuses AND o.orderDate >= :from AND o.orderDate < :to " +
+           "GROUP BY CAST(o.orderDate AS LocalDate), CAST(COALESCE(o.customerSegment, cu.segment) AS String)")
+    List<SalesFact> sumSalesBySegment(@Param("statuses") Collection<OrderStatus> statuses,
+                                      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
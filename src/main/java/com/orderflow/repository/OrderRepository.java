@@ -10,11 +10,18 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    interface OrderTimer {
+        Long getId();
+        LocalDateTime getOrderDate();
+    }
+
     Optional<Order> findByOrderNumber(String orderNumber);
     
     List<Order> findByStatus(OrderStatus status);
@@ -26,4 +33,14 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
                                        @Param("endDate") LocalDateTime endDate);
     
     Long countByStatus(OrderStatus status);
+
+    // Served by idx_order_status_date, so startup recovery does not scan the table
+    @Query("SELECT o.id AS id, o.orderDate AS orderDate FROM Order o WHERE o.status = :status ORDER BY o.orderDate")
+    List<OrderTimer> findTimersByStatus(@Param("status") OrderStatus status);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT MIN(o.orderDate) FROM Order o")
+    LocalDateTime findFirstOrderDate();
 }
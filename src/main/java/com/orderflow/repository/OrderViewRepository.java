@@ -0,0 +1,22 @@
+package com.orderflow.repository;
+
+import com.orderflow.model.entity.OrderView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Long>, JpaSpecificationExecutor<OrderView> {
+
+    @Modifying
+    @Query("UPDATE OrderView v SET v.customerName = :name, v.customerEmail = :email WHERE v.customerId = :customerId")
+    int updateCustomer(@Param("customerId") Long customerId, @Param("name") String name, @Param("email") String email);
+
+    @Query("SELECT o.id FROM Order o WHERE NOT EXISTS (SELECT 1 FROM OrderView v WHERE v.orderId = o.id)")
+    List<Long> findOrderIdsWithoutView();
+}
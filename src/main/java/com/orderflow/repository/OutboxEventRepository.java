@@ -0,0 +1,56 @@
+package com.orderflow.repository;
+
+import com.orderflow.model.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    interface PendingEvent {
+        Long getId();
+        String getAggregateType();
+        Long getAggregateId();
+    }
+
+    // Lock timeout -2 is Hibernate's SKIP LOCKED, so concurrent relays claim disjoint rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.processedAt IS NULL " +
+           "AND (e.leaseUntil IS NULL OR e.leaseUntil < :now) ORDER BY e.id")
+    List<OutboxEvent> claimPending(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT e.id AS id, e.aggregateType AS aggregateType, e.aggregateId AS aggregateId " +
+           "FROM OutboxEvent e WHERE e.processedAt IS NULL AND e.aggregateId IN :aggregateIds ORDER BY e.id")
+    List<PendingEvent> findPendingByAggregateIdIn(@Param("aggregateIds") Collection<Long> aggregateIds);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.processedAt = :now, e.leaseUntil = NULL, e.version = e.version + 1 " +
+           "WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.leaseUntil = :retryAt, " +
+           "e.version = e.version + 1 WHERE e.id = :id")
+    int scheduleRetry(@Param("id") Long id, @Param("retryAt") LocalDateTime retryAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.leaseUntil = NULL, e.version = e.version + 1 WHERE e.id IN :ids")
+    int releaseLeases(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -3,15 +3,27 @@ package com.orderflow.repository;
 import com.orderflow.model.entity.Invoice;
 import com.orderflow.model.entity.Payment;
 import com.orderflow.model.enums.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByReferenceNumber(String referenceNumber);
     List<Payment> findByInvoice(Invoice invoice);
-    List<Payment> findByStatus(PaymentStatus status);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payment p WHERE p.status = :status ORDER BY p.id")
+    Stream<Payment> streamByStatus(@Param("status") PaymentStatus status);
 }
@@ -2,28 +2,118 @@ package com.orderflow.repository;
 
 import com.orderflow.model.entity.Category;
 import com.orderflow.model.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    interface StockLevel {
+        Integer getQuantityInStock();
+        Integer getReservedQuantity();
+    }
+
+    interface StockState {
+        Long getId();
+        String getSku();
+        String getName();
+        Integer getQuantityInStock();
+        Integer getReservedQuantity();
+        Integer getMinStockLevel();
+        Boolean getActive();
+    }
+
     Optional<Product> findBySku(String sku);
     List<Product> findByCategory(Category category);
     Page<Product> findByActiveTrue(Pageable pageable);
     boolean existsBySku(String sku);
     
-    @Query("SELECT p FROM Product p WHERE p.deleted = false AND p.active = true")
-    List<Product> findAllActiveProducts();
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p WHERE p.deleted = false AND p.active = true ORDER BY p.id")
+    Stream<Product> streamAllActiveProducts();
     
-    @Query("SELECT p FROM Product p WHERE p.quantityInStock - p.reservedQuantity <= p.minStockLevel AND p.active = true")
-    List<Product> findLowStockProducts();
+    @Query("SELECT p.id FROM Product p WHERE p.category.id = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT p.id FROM Product p WHERE p.quantityInStock - p.reservedQuantity <= p.minStockLevel AND p.active = true")
+    List<Long> findLowStockProductIds();
+
+    @Query("SELECT p.id AS id, p.sku AS sku, p.name AS name, p.quantityInStock AS quantityInStock, " +
+           "p.reservedQuantity AS reservedQuantity, p.minStockLevel AS minStockLevel, p.active AS active " +
+           "FROM Product p WHERE p.id IN :ids")
+    List<StockState> findStockStates(@Param("ids") Collection<Long> ids);
     
     @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<Product> searchProducts(String keyword, Pageable pageable);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.deleted = false")
+    Stream<Product> streamAllForSearch();
+
+    // Skips products whose category, or any category between it and the prefix, is deleted
+    @Query(value = "SELECT p FROM Product p JOIN p.category c WHERE p.deleted = false AND c.deleted = false " +
+                   "AND c.path LIKE CONCAT(:pathPrefix, '%') AND NOT EXISTS (SELECT d FROM Category d " +
+                   "WHERE d.deleted = true AND d.path LIKE CONCAT(:pathPrefix, '%') AND c.path LIKE CONCAT(d.path, '%'))",
+           countQuery = "SELECT COUNT(p) FROM Product p JOIN p.category c WHERE p.deleted = false AND c.deleted = false " +
+                        "AND c.path LIKE CONCAT(:pathPrefix, '%') AND NOT EXISTS (SELECT d FROM Category d " +
+                        "WHERE d.deleted = true AND d.path LIKE CONCAT(:pathPrefix, '%') AND c.path LIKE CONCAT(d.path, '%'))")
+    Page<Product> findByCategoryPathPrefix(@Param("pathPrefix") String pathPrefix, Pageable pageable);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id IN :ids")
+    List<Product> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Scalar projection, so it always reads the database rather than the persistence context
+    @Query("SELECT p.quantityInStock AS quantityInStock, p.reservedQuantity AS reservedQuantity FROM Product p WHERE p.id = :id")
+    Optional<StockLevel> findStockLevel(@Param("id") Long id);
+
+    /*
+     * Guarded single-statement stock updates. Each returns the number of rows
+     * changed, so 0 means the guard failed (not enough stock) and the caller
+     * decides how to report it. The version is bumped so that concurrent
+     * whole-entity saves fail instead of overwriting the counters.
+     */
+
+    @Modifying
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity + :quantity, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.quantityInStock - p.reservedQuantity >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.reservedQuantity = CASE WHEN p.reservedQuantity > :quantity " +
+           "THEN p.reservedQuantity - :quantity ELSE 0 END, p.version = p.version + 1 " +
+           "WHERE p.id = :id")
+    int releaseReservedStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.quantityInStock = p.quantityInStock - :quantity, " +
+           "p.reservedQuantity = CASE WHEN p.reservedQuantity > :quantity THEN p.reservedQuantity - :quantity ELSE 0 END, " +
+           "p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.quantityInStock >= :quantity")
+    int reduceStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.quantityInStock = p.quantityInStock + :stockDelta, " +
+           "p.reservedQuantity = p.reservedQuantity + :reservedDelta, p.version = p.version + 1 " +
+           "WHERE p.id = :id")
+    int applyStockDeltas(@Param("id") Long id, @Param("stockDelta") int stockDelta,
+                         @Param("reservedDelta") int reservedDelta);
 }
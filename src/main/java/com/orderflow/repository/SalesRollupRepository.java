@@ -0,0 +1,52 @@
+package com.orderflow.repository;
+
+import com.orderflow.model.entity.SalesRollup;
+import com.orderflow.model.enums.RollupDimension;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+
+    interface BucketTotals {
+        LocalDate getBucketDate();
+        String getDimensionKey();
+        Long getOrderCount();
+        Long getUnits();
+        BigDecimal getRevenue();
+    }
+
+    List<SalesRollup> findByBucketDateBetween(LocalDate from, LocalDate to);
+
+    // Both range queries read the (dimension, bucket_date, dimension_key) unique index
+    @Query("SELECT r.dimensionKey AS dimensionKey, SUM(r.orderCount) AS orderCount, SUM(r.units) AS units, " +
+           "SUM(r.revenue) AS revenue FROM SalesRollup r " +
+           "WHERE r.dimension = :dimension AND r.bucketDate BETWEEN :from AND :to GROUP BY r.dimensionKey")
+    List<BucketTotals> sumByKey(@Param("dimension") RollupDimension dimension,
+                                @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT r.bucketDate AS bucketDate, SUM(r.orderCount) AS orderCount, SUM(r.units) AS units, " +
+           "SUM(r.revenue) AS revenue FROM SalesRollup r " +
+           "WHERE r.dimension = :dimension AND r.bucketDate BETWEEN :from AND :to GROUP BY r.bucketDate")
+    List<BucketTotals> sumByDay(@Param("dimension") RollupDimension dimension,
+                                @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("UPDATE SalesRollup r SET r.orderCount = r.orderCount + :orders, r.units = r.units + :units, " +
+           "r.revenue = r.revenue + :revenue " +
+           "WHERE r.dimension = :dimension AND r.bucketDate = :day AND r.dimensionKey = :key")
+    int addToBucket(@Param("dimension") RollupDimension dimension, @Param("day") LocalDate day,
+                    @Param("key") String key, @Param("orders") long orders, @Param("units") long units,
+                    @Param("revenue") BigDecimal revenue);
+
+    @Modifying
+    @Query("DELETE FROM SalesRollup r WHERE r.bucketDate BETWEEN :from AND :to")
+    int deleteByBucketDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,9 @@
+package com.orderflow.repository;
+
+import com.orderflow.model.entity.StockLedgerWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockLedgerWatermarkRepository extends JpaRepository<StockLedgerWatermark, Integer> {
+}
@@ -0,0 +1,83 @@
+package com.orderflow.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongConsumer;
+
+/**
+ * Hashed timing wheel for large numbers of long-keyed timeouts. Scheduling is a
+ * lock-free enqueue from any thread; a single ticker thread calls {@link #advance}
+ * to move new timeouts into their buckets and fire the ones that are due. Each tick
+ * only touches one bucket, so cost does not grow with the number of timers.
+ */
+public class HashedTimingWheel {
+
+    private static final class Timeout {
+        final long id;
+        final long deadline;
+        long remainingRounds;
+
+        Timeout(long id, long deadline) {
+            this.id = id;
+            this.deadline = deadline;
+        }
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<List<Timeout>> buckets;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final long startTime;
+    private long tick;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startTime) {
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.startTime = startTime;
+    }
+
+    public void schedule(long id, long deadlineMillis) {
+        incoming.add(new Timeout(id, deadlineMillis));
+    }
+
+    /**
+     * Processes every tick up to {@code now}, passing the ids of due timeouts to
+     * {@code expired}. Must only be called from one thread at a time.
+     */
+    public void advance(long now, LongConsumer expired) {
+        long lastTick = (now - startTime) / tickMillis;
+        while (tick <= lastTick) {
+            transferIncoming();
+            List<Timeout> bucket = buckets.get((int) (tick & mask));
+            int kept = 0;
+            for (int i = 0; i < bucket.size(); i++) {
+                Timeout timeout = bucket.get(i);
+                if (timeout.remainingRounds <= 0) {
+                    expired.accept(timeout.id);
+                } else {
+                    timeout.remainingRounds--;
+                    bucket.set(kept++, timeout);
+                }
+            }
+            bucket.subList(kept, bucket.size()).clear();
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            // Overdue timeouts land in the current tick's bucket
+            long due = Math.max(tick, (timeout.deadline - startTime + tickMillis - 1) / tickMillis);
+            timeout.remainingRounds = (due - tick) / buckets.size();
+            buckets.get((int) (due & mask)).add(timeout);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.orderflow.scheduler;
+
+import com.orderflow.service.InvoiceService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves SENT invoices whose due date has passed to OVERDUE. Each chunk is one
+ * transaction: an indexed read of the next ids, then a single UPDATE for all of
+ * them. A run stops at the first short chunk; anything a concurrent write made it
+ * miss is picked up by the next run.
+ * <p>
+ * Each run records its duration, the invoices it moved and its throughput under
+ * orderflow.invoices.overdue.sweep.*.
+ */
+@Component
+@ConditionalOnProperty(name = "orderflow.invoices.overdue.sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class OverdueInvoiceSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueInvoiceSweeper.class);
+
+    private final InvoiceService invoiceService;
+    private final int chunkSize;
+    private final Timer runTimer;
+    private final DistributionSummary runSize;
+    private final Counter swept;
+    private final AtomicLong lastRunRate = new AtomicLong();
+
+    @Autowired
+    public OverdueInvoiceSweeper(InvoiceService invoiceService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${orderflow.invoices.overdue.sweep.chunk-size:500}") int chunkSize) {
+        this.invoiceService = invoiceService;
+        this.chunkSize = chunkSize;
+        this.runTimer = Timer.builder("orderflow.invoices.overdue.sweep.duration")
+            .description("Time taken by one overdue-invoice sweep")
+            .register(meterRegistry);
+        this.runSize = DistributionSummary.builder("orderflow.invoices.overdue.sweep.invoices")
+            .description("Invoices moved to OVERDUE per sweep")
+            .register(meterRegistry);
+        this.swept = Counter.builder("orderflow.invoices.overdue.swept")
+            .description("Invoices moved to OVERDUE")
+            .register(meterRegistry);
+        Gauge.builder("orderflow.invoices.overdue.sweep.rate", lastRunRate, AtomicLong::get)
+            .description("Invoices per second in the last sweep that moved any")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${orderflow.invoices.overdue.sweep.interval-ms:900000}")
+    public void sweep() {
+        LocalDate today = LocalDate.now();
+        long started = System.nanoTime();
+        int total = 0;
+        int chunks = 0;
+        try {
+            int updated;
+            do {
+                updated = invoiceService.markOverdueInvoices(today, chunkSize);
+                total += updated;
+                chunks++;
+            } while (updated == chunkSize);
+        } catch (RuntimeException e) {
+            log.error("Overdue invoice sweep failed after {} invoices, retrying on next interval", total, e);
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            runTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            runSize.record(total);
+            swept.increment(total);
+            if (total > 0) {
+                long rate = total * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed);
+                lastRunRate.set(rate);
+                log.info("Marked {} invoices overdue in {} chunks, {} ms ({}/s)",
+                    total, chunks, TimeUnit.NANOSECONDS.toMillis(elapsed), rate);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.orderflow.scheduler;
+
+import com.orderflow.event.OrderPlacedEvent;
+import com.orderflow.model.enums.OrderStatus;
+import com.orderflow.repository.OrderRepository;
+import com.orderflow.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cancels PENDING orders whose stock reservation has outlived the configured TTL.
+ * Each new order gets a timer on a hashed timing wheel once its transaction commits.
+ * Timers for orders placed before a restart are rebuilt from the indexed
+ * (status, order_date) query. Due orders are expired in batches.
+ */
+@Component
+@ConditionalOnProperty(name = "orderflow.orders.reservation.enabled", havingValue = "true")
+public class ReservationExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationExpiryScheduler.class);
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final Duration ttl;
+    private final int batchSize;
+    private final HashedTimingWheel wheel;
+
+    @Autowired
+    public ReservationExpiryScheduler(OrderService orderService,
+                                      OrderRepository orderRepository,
+                                      @Value("${orderflow.orders.reservation.ttl-minutes:30}") long ttlMinutes,
+                                      @Value("${orderflow.orders.reservation.tick-millis:1000}") long tickMillis,
+                                      @Value("${orderflow.orders.reservation.wheel-size:512}") int wheelSize,
+                                      @Value("${orderflow.orders.reservation.batch-size:200}") int batchSize) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.batchSize = batchSize;
+        this.wheel = new HashedTimingWheel(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPendingOrders() {
+        List<OrderRepository.OrderTimer> timers = orderRepository.findTimersByStatus(OrderStatus.PENDING);
+        for (OrderRepository.OrderTimer timer : timers) {
+            schedule(timer.getId(), timer.getOrderDate());
+        }
+        log.info("Scheduled reservation expiry for {} pending orders", timers.size());
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        schedule(event.getOrderId(), event.getOrderDate());
+    }
+
+    @Scheduled(fixedDelayString = "${orderflow.orders.reservation.tick-millis:1000}")
+    public void expireDueReservations() {
+        List<Long> due = new ArrayList<>();
+        wheel.advance(System.currentTimeMillis(), due::add);
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        for (int from = 0; from < due.size(); from += batchSize) {
+            expire(due.subList(from, Math.min(due.size(), from + batchSize)), cutoff);
+        }
+    }
+
+    private void expire(List<Long> orderIds, LocalDateTime cutoff) {
+        try {
+            orderService.expireReservations(orderIds, cutoff);
+        } catch (RuntimeException e) {
+            if (orderIds.size() == 1) {
+                // Typically a concurrent confirm or cancel of the same order
+                log.warn("Could not expire reservation for order {}: {}", orderIds.get(0), e.getMessage());
+                return;
+            }
+            // Retry one by one so a single conflicting order does not block the batch
+            for (Long orderId : orderIds) {
+                expire(List.of(orderId), cutoff);
+            }
+        }
+    }
+
+    private void schedule(Long orderId, LocalDateTime orderDate) {
+        long deadline = orderDate.plus(ttl).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        wheel.schedule(orderId, deadline);
+    }
+}
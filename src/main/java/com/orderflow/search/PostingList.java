@@ -0,0 +1,50 @@
+package com.orderflow.search;
+
+import java.util.Arrays;
+
+/**
+ * Postings for one term: ascending doc ids and their weighted term frequencies in
+ * parallel int arrays. Doc ids are handed out in increasing order and a changed
+ * product gets a new one, so appending keeps the list sorted. Guarded by the
+ * index lock.
+ */
+final class PostingList {
+
+    int[] docs = new int[2];
+    int[] freqs = new int[2];
+    int size;
+
+    void add(int doc, int freq) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            freqs = Arrays.copyOf(freqs, size * 2);
+        }
+        docs[size] = doc;
+        freqs[size] = freq;
+        size++;
+    }
+
+    /**
+     * Renumbers the postings through remap, where -1 marks a dead doc, and drops
+     * the dead ones. The remap is monotonic, so the list stays sorted.
+     *
+     * @return false if no postings are left
+     */
+    boolean compact(int[] remap) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int doc = remap[docs[i]];
+            if (doc >= 0) {
+                docs[kept] = doc;
+                freqs[kept] = freqs[i];
+                kept++;
+            }
+        }
+        size = kept;
+        if (kept > 0 && kept < docs.length / 4) {
+            docs = Arrays.copyOf(docs, kept);
+            freqs = Arrays.copyOf(freqs, kept);
+        }
+        return kept > 0;
+    }
+}
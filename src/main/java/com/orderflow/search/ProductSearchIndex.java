@@ -0,0 +1,516 @@
+package com.orderflow.search;
+
+import com.orderflow.model.entity.Category;
+import com.orderflow.model.entity.Product;
+import com.orderflow.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over product name, SKU, category and description,
+ * ranked with BM25. Field matches are weighted into the term frequency (name and
+ * SKU 3, category 2, description 1).
+ * <p>
+ * Every query token must match. A token matches its exact term at full weight and,
+ * at half weight, up to max-expansions other terms that contain it: terms sharing
+ * the token as a prefix for one- and two-letter tokens, otherwise terms found
+ * through a trigram index over the vocabulary.
+ * <p>
+ * The index is built from the products table once the application is ready. After
+ * that, the write paths queue the ids of changed products when they commit, and a
+ * scheduled drain re-reads them off the committing thread. A changed product is
+ * re-added under a new doc id and the old one tombstoned; tombstones are dropped
+ * once they make up a quarter of the docs. Until the first build completes, and for
+ * queries without any token, {@link #search} returns empty and callers fall back
+ * to SQL.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int SKU_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final float PARTIAL_MATCH_WEIGHT = 0.5f;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int GRAM = 3;
+    private static final int BUILD_CLEAR_ROWS = 500;
+    private static final int REINDEX_BATCH = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxExpansions;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, PostingList> terms = new TreeMap<>();
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+    private final Map<Long, Integer> docsByProduct = new HashMap<>();
+    private final BitSet dead = new BitSet();
+    private long[] productIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private int docCount;
+    private int deadCount;
+    private long totalLength;
+
+    private volatile boolean ready;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ProductSearchIndex(ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${orderflow.search.enabled:true}") boolean enabled,
+                              @Value("${orderflow.search.max-expansions:64}") int maxExpansions) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.maxExpansions = maxExpansions;
+    }
+
+    /**
+     * Changes committed while this runs stay queued and are applied by the next drain.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Product> products = productRepository.streamAllForSearch()) {
+                    int read = 0;
+                    for (Product product : (Iterable<Product>) products::iterator) {
+                        add(product.getId(), document(product));
+                        if (++read % BUILD_CLEAR_ROWS == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Product search index build failed, searching through SQL", e);
+            return;
+        }
+        ready = true;
+        log.info("Product search index built with {} products and {} terms in {} ms",
+            docsByProduct.size(), terms.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Queues the product for re-indexing once the current transaction commits.
+     */
+    public void productChanged(Long productId) {
+        productsChanged(List.of(productId));
+    }
+
+    /**
+     * Queues the products for re-indexing once the current transaction commits.
+     */
+    public void productsChanged(Collection<Long> productIds) {
+        if (!enabled) {
+            return;
+        }
+        List<Long> ids = List.copyOf(productIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.addAll(ids);
+                }
+            });
+        } else {
+            pending.addAll(ids);
+        }
+    }
+
+    /**
+     * Queues the product for removal once the current transaction commits. The
+     * drain drops any queued product it no longer finds live.
+     */
+    public void productRemoved(Long productId) {
+        productsChanged(List.of(productId));
+    }
+
+    /**
+     * Ids are taken off the queue before their rows are read, so a change committed
+     * during the read queues them again rather than being lost.
+     */
+    @Scheduled(fixedDelayString = "${orderflow.search.refresh-interval-ms:250}")
+    public void drain() {
+        if (!ready || pending.isEmpty()) {
+            return;
+        }
+        List<Long> batch = new ArrayList<>(REINDEX_BATCH);
+        Iterator<Long> it = pending.iterator();
+        while (it.hasNext()) {
+            batch.add(it.next());
+            it.remove();
+            if (batch.size() == REINDEX_BATCH || !it.hasNext()) {
+                try {
+                    reindex(batch);
+                } catch (RuntimeException e) {
+                    log.error("Product search refresh failed, retrying on next interval", e);
+                    pending.addAll(batch);
+                    return;
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Ranks the products matching every token of the query and returns one page
+     * of their ids, best first. Empty if the index is disabled or not yet built.
+     */
+    public Optional<SearchHits> search(String query, int offset, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        tokenize(query, tokens::add);
+        if (tokens.isEmpty()) {
+            // Nothing to rank on; SQL's match-everything LIKE handles it
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveDocs = docCount - deadCount;
+            float averageLength = liveDocs == 0 ? 1 : (float) totalLength / liveDocs;
+            Matches result = null;
+            for (String token : tokens) {
+                Matches matches = match(token, liveDocs, averageLength);
+                result = result == null ? matches : result.intersect(matches);
+                if (result.size == 0) {
+                    break;
+                }
+            }
+            return Optional.of(new SearchHits(result.top(offset, limit, productIds), result.size));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void reindex(Collection<Long> productIds) {
+        Map<Long, Map<String, Integer>> documents = transactionTemplate.execute(status -> {
+            Map<Long, Map<String, Integer>> read = new HashMap<>();
+            for (Product product : productRepository.findAllWithCategoryByIdIn(productIds)) {
+                if (!product.isDeleted()) {
+                    read.put(product.getId(), document(product));
+                }
+            }
+            return read;
+        });
+        for (Long productId : productIds) {
+            Map<String, Integer> document = documents.get(productId);
+            if (document == null) {
+                remove(productId);
+            } else {
+                add(productId, document);
+            }
+        }
+    }
+
+    private static Map<String, Integer> document(Product product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(product.getName(), term -> frequencies.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(product.getSku(), term -> frequencies.merge(term, SKU_WEIGHT, Integer::sum));
+        Category category = product.getCategory();
+        if (category != null) {
+            tokenize(category.getName(), term -> frequencies.merge(term, CATEGORY_WEIGHT, Integer::sum));
+            tokenize(category.getCode(), term -> frequencies.merge(term, CATEGORY_WEIGHT, Integer::sum));
+        }
+        tokenize(product.getDescription(), term -> frequencies.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        return frequencies;
+    }
+
+    private void add(long productId, Map<String, Integer> document) {
+        int length = 0;
+        for (int frequency : document.values()) {
+            length += frequency;
+        }
+        lock.writeLock().lock();
+        try {
+            tombstone(productId);
+            if (docCount == productIds.length) {
+                productIds = Arrays.copyOf(productIds, docCount * 2);
+                docLengths = Arrays.copyOf(docLengths, docCount * 2);
+            }
+            int doc = docCount++;
+            productIds[doc] = productId;
+            docLengths[doc] = length;
+            docsByProduct.put(productId, doc);
+            totalLength += length;
+            for (Map.Entry<String, Integer> term : document.entrySet()) {
+                terms.computeIfAbsent(term.getKey(), this::newTerm).add(doc, term.getValue());
+            }
+            // Every reindex tombstones the product's previous doc
+            compactIfWasteful();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            tombstone(productId);
+            compactIfWasteful();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactIfWasteful() {
+        if (deadCount > 1024 && deadCount * 4 > docCount) {
+            compact();
+        }
+    }
+
+    private void tombstone(long productId) {
+        Integer doc = docsByProduct.remove(productId);
+        if (doc != null) {
+            dead.set(doc);
+            deadCount++;
+            totalLength -= docLengths[doc];
+        }
+    }
+
+    /**
+     * Renumbers the live docs densely and drops tombstoned postings and the terms
+     * left without any.
+     */
+    private void compact() {
+        int[] remap = new int[docCount];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (dead.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = live;
+                productIds[live] = productIds[doc];
+                docLengths[live] = docLengths[doc];
+                docsByProduct.put(productIds[live], live);
+                live++;
+            }
+        }
+        terms.entrySet().removeIf(term -> {
+            if (term.getValue().compact(remap)) {
+                return false;
+            }
+            forEachGram(term.getKey(), gram -> {
+                Set<String> gramTerms = termsByGram.get(gram);
+                gramTerms.remove(term.getKey());
+                if (gramTerms.isEmpty()) {
+                    termsByGram.remove(gram);
+                }
+            });
+            return true;
+        });
+        log.debug("Compacted product search index from {} to {} docs", docCount, live);
+        docCount = live;
+        deadCount = 0;
+        dead.clear();
+    }
+
+    private PostingList newTerm(String term) {
+        forEachGram(term, gram -> termsByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(term));
+        return new PostingList();
+    }
+
+    private Matches match(String token, int liveDocs, float averageLength) {
+        List<PostingList> lists = new ArrayList<>();
+        List<Float> weights = new ArrayList<>();
+        PostingList exact = terms.get(token);
+        if (exact != null) {
+            lists.add(exact);
+            weights.add(1f);
+        }
+        for (String term : expansions(token)) {
+            lists.add(terms.get(term));
+            weights.add(PARTIAL_MATCH_WEIGHT);
+        }
+
+        int total = 0;
+        for (PostingList list : lists) {
+            total += list.size;
+        }
+        // doc in the high half, score bits in the low half: sorting groups by doc
+        // with the best score of each doc last, as scores are non-negative floats
+        long[] scored = new long[total];
+        int count = 0;
+        for (int l = 0; l < lists.size(); l++) {
+            PostingList list = lists.get(l);
+            double idf = Math.log(1 + (liveDocs - list.size + 0.5) / (list.size + 0.5));
+            float weight = weights.get(l) * (float) Math.max(idf, 0);
+            for (int i = 0; i < list.size; i++) {
+                int doc = list.docs[i];
+                if (dead.get(doc)) {
+                    continue;
+                }
+                float frequency = list.freqs[i];
+                float norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+                float score = weight * frequency * (K1 + 1) / (frequency + norm);
+                scored[count++] = (long) doc << 32 | Float.floatToIntBits(score);
+            }
+        }
+        Arrays.sort(scored, 0, count);
+
+        Matches matches = new Matches(count);
+        for (int i = 0; i < count; i++) {
+            if (i + 1 < count && scored[i + 1] >>> 32 == scored[i] >>> 32) {
+                continue;
+            }
+            matches.add((int) (scored[i] >>> 32), Float.intBitsToFloat((int) scored[i]));
+        }
+        return matches;
+    }
+
+    /**
+     * Other terms containing the token, up to max-expansions of them.
+     */
+    private List<String> expansions(String token) {
+        List<String> expanded = new ArrayList<>();
+        if (token.length() < GRAM) {
+            for (String term : terms.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                if (expanded.size() == maxExpansions) {
+                    break;
+                }
+                expanded.add(term);
+            }
+            return expanded;
+        }
+
+        Set<String> smallest = null;
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            Set<String> gramTerms = termsByGram.getOrDefault(token.substring(i, i + GRAM), Collections.emptySet());
+            if (smallest == null || gramTerms.size() < smallest.size()) {
+                smallest = gramTerms;
+            }
+        }
+        for (String term : smallest) {
+            if (expanded.size() == maxExpansions) {
+                break;
+            }
+            if (!term.equals(token) && term.contains(token)) {
+                expanded.add(term);
+            }
+        }
+        return expanded;
+    }
+
+    private static void forEachGram(String term, Consumer<String> action) {
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            action.accept(term.substring(i, i + GRAM));
+        }
+    }
+
+    private static void tokenize(String text, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                sink.accept(token);
+            }
+        }
+    }
+
+    /**
+     * Matching docs in ascending doc order with their scores.
+     */
+    private static final class Matches {
+        final int[] docs;
+        final float[] scores;
+        int size;
+
+        Matches(int capacity) {
+            docs = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        void add(int doc, float score) {
+            docs[size] = doc;
+            scores[size] = score;
+            size++;
+        }
+
+        Matches intersect(Matches other) {
+            Matches both = new Matches(Math.min(size, other.size));
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    both.add(docs[i], scores[i] + other.scores[j]);
+                    i++;
+                    j++;
+                }
+            }
+            return both;
+        }
+
+        List<Long> top(int offset, int limit, long[] productIds) {
+            if (offset >= size) {
+                return List.of();
+            }
+            // score bits in the high half, inverted doc in the low half: ascending
+            // order puts the best score last and, among equal scores, the oldest doc
+            long[] ranked = new long[size];
+            for (int i = 0; i < size; i++) {
+                ranked[i] = (long) Float.floatToIntBits(scores[i]) << 32 | (~docs[i] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(ranked);
+            int end = Math.min(size, offset + limit);
+            List<Long> page = new ArrayList<>(end - offset);
+            for (int rank = offset; rank < end; rank++) {
+                int doc = ~(int) ranked[size - 1 - rank];
+                page.add(productIds[doc]);
+            }
+            return page;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.orderflow.search;
+
+import java.util.List;
+
+/**
+ * One page of ranked product ids and the total number of matches.
+ */
+public class SearchHits {
+
+    private final List<Long> productIds;
+    private final long total;
+
+    public SearchHits(List<Long> productIds, long total) {
+        this.productIds = productIds;
+        this.total = total;
+    }
+
+    public List<Long> getProductIds() { return productIds; }
+    public long getTotal() { return total; }
+}
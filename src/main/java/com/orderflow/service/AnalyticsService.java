@@ -0,0 +1,16 @@
+package com.orderflow.service;
+
+import com.orderflow.model.dto.LiveSalesDTO;
+import com.orderflow.model.dto.SalesSummaryDTO;
+import com.orderflow.model.dto.SalesTotalsDTO;
+import com.orderflow.model.enums.RollupDimension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AnalyticsService {
+    SalesSummaryDTO getSalesSummary(LocalDate from, LocalDate to);
+    List<SalesTotalsDTO> getTopSales(RollupDimension dimension, LocalDate from, LocalDate to, int limit);
+    void rebuildRollups(LocalDate from, LocalDate to);
+    LiveSalesDTO getLiveSales(int top);
+}
@@ -0,0 +1,9 @@
+package com.orderflow.service;
+
+/**
+ * Generates unique, creation-time ordered business numbers such as ORD-..., INV-...
+ */
+public interface BusinessNumberGenerator {
+    String next(String prefix);
+    long nextId();
+}
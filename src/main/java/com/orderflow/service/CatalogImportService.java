@@ -0,0 +1,14 @@
+package com.orderflow.service;
+
+import com.orderflow.model.dto.CatalogImportDTO;
+import com.orderflow.model.dto.ImportRowErrorDTO;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface CatalogImportService {
+    CatalogImportDTO startImport(InputStream file, String fileName);
+    CatalogImportDTO getImport(String id);
+    List<CatalogImportDTO> getImports();
+    List<ImportRowErrorDTO> getImportErrors(String id);
+}
@@ -1,6 +1,10 @@
 package com.orderflow.service;
 
+import com.orderflow.model.dto.CategoryNodeDTO;
 import com.orderflow.model.entity.Category;
+import com.orderflow.model.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
@@ -13,4 +17,7 @@ public interface CategoryService {
     List<Category> getRootCategories();
     List<Category> getSubCategories(Long parentId);
     void deleteCategory(Long id);
+    List<CategoryNodeDTO> getCategoryTree();
+    CategoryNodeDTO getCategorySubtree(Long id);
+    Page<Product> getSubtreeProducts(Long id, Pageable pageable);
 }
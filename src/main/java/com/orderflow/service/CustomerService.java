@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CustomerService {
     Customer createCustomer(Customer customer);
@@ -13,7 +14,7 @@ public interface CustomerService {
     Customer getCustomerById(Long id);
     Customer getCustomerByEmail(String email);
     Customer getCustomerByCode(String customerCode);
-    List<Customer> getAllCustomers();
+    Stream<Customer> streamAllCustomers();
     Page<Customer> getActiveCustomers(Pageable pageable);
     List<Customer> getCustomersBySegment(CustomerSegment segment);
     void deleteCustomer(Long id);
@@ -0,0 +1,15 @@
+package com.orderflow.service;
+
+import com.orderflow.export.ExportFile;
+import com.orderflow.model.dto.ExportJobDTO;
+import com.orderflow.model.dto.ExportRequest;
+
+import java.util.List;
+
+public interface ExportService {
+    ExportJobDTO startExport(ExportRequest request);
+    ExportJobDTO getExport(String id);
+    List<ExportJobDTO> getExports();
+    ExportFile getExportFile(String id);
+    void deleteExport(String id);
+}
@@ -0,0 +1,15 @@
+package com.orderflow.service;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+    /**
+     * Runs the action once per (scope, key). Repeats with the same request return the
+     * stored response; a repeat with a different request is rejected with
+     * IdempotencyKeyReusedException. A null or blank key runs the action without
+     * idempotency tracking.
+     */
+    ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action);
+}
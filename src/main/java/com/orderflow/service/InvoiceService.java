@@ -2,7 +2,10 @@ package com.orderflow.service;
 
 import com.orderflow.model.entity.Invoice;
 import com.orderflow.model.enums.InvoiceStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface InvoiceService {
@@ -12,7 +15,8 @@ public interface InvoiceService {
     Invoice getInvoiceByNumber(String invoiceNumber);
     Invoice getInvoiceByOrderId(Long orderId);
     List<Invoice> getInvoicesByCustomer(Long customerId);
-    List<Invoice> getOverdueInvoices();
+    Page<Invoice> getOverdueInvoices(Pageable pageable);
+    int markOverdueInvoices(LocalDate today, int limit);
     Invoice updateInvoiceStatus(Long invoiceId, InvoiceStatus status);
     void markInvoiceAsPaid(Long invoiceId);
 }
@@ -0,0 +1,12 @@
+package com.orderflow.service;
+
+import com.orderflow.model.dto.OrderPageDTO;
+import com.orderflow.model.dto.OrderResponseDTO;
+import com.orderflow.model.dto.OrderSearchCriteria;
+import com.orderflow.model.entity.Order;
+
+public interface OrderQueryService {
+    OrderResponseDTO getOrder(Long id);
+    OrderPageDTO findOrders(OrderSearchCriteria criteria, String cursor, int limit);
+    void refresh(Order order);
+}
@@ -1,5 +1,7 @@
 package com.orderflow.service;
 
+import com.orderflow.model.dto.OrderBatchResult;
+import com.orderflow.model.dto.OrderStatusResult;
 import com.orderflow.model.entity.Order;
 import com.orderflow.model.enums.OrderStatus;
 import org.springframework.data.domain.Page;
@@ -10,12 +12,15 @@ import java.util.List;
 
 public interface OrderService {
     Order createOrder(Order order);
+    List<OrderBatchResult> createOrders(List<Order> orders, int firstLine);
     Order getOrderById(Long id);
     Order getOrderByNumber(String orderNumber);
     List<Order> getAllOrders();
     Page<Order> getOrdersByCustomer(Long customerId, Pageable pageable);
     List<Order> getOrdersByStatus(OrderStatus status);
     Order updateOrderStatus(Long orderId, OrderStatus newStatus);
+    List<OrderStatusResult> updateOrderStatuses(List<Long> orderIds, OrderStatus newStatus);
     void cancelOrder(Long orderId, String reason);
     List<Order> getOrdersBetweenDates(LocalDateTime startDate, LocalDateTime endDate);
+    int expireReservations(List<Long> orderIds, LocalDateTime placedBefore);
 }
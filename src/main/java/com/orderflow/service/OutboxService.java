@@ -0,0 +1,9 @@
+package com.orderflow.service;
+
+import com.orderflow.model.enums.LifecycleEventType;
+
+import java.util.Map;
+
+public interface OutboxService {
+    void record(String aggregateType, Long aggregateId, LifecycleEventType eventType, Map<String, Object> payload);
+}
@@ -4,6 +4,7 @@ import com.orderflow.model.entity.Payment;
 import com.orderflow.model.enums.PaymentStatus;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface PaymentService {
     Payment createPayment(Payment payment);
@@ -11,6 +12,6 @@ public interface PaymentService {
     Payment getPaymentById(Long id);
     Payment getPaymentByReference(String referenceNumber);
     List<Payment> getPaymentsByInvoice(Long invoiceId);
-    List<Payment> getPaymentsByStatus(PaymentStatus status);
+    Stream<Payment> streamPaymentsByStatus(PaymentStatus status);
     Payment updatePaymentStatus(Long paymentId, PaymentStatus status);
 }
@@ -5,17 +5,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProductService {
     Product createProduct(Product product);
     Product updateProduct(Long id, Product product);
     Product getProductById(Long id);
     Product getProductBySku(String sku);
-    List<Product> getAllProducts();
+    Stream<Product> streamAllProducts();
     Page<Product> getActiveProducts(Pageable pageable);
     List<Product> getLowStockProducts();
     Page<Product> searchProducts(String keyword, Pageable pageable);
     void deleteProduct(Long id);
-    void updateStock(Long productId, Integer quantity);
     boolean existsBySku(String sku);
 }
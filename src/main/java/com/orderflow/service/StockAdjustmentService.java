@@ -0,0 +1,19 @@
+package com.orderflow.service;
+
+import com.orderflow.model.dto.StockAdjustmentRequest;
+import com.orderflow.model.dto.StockAdjustmentResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stock deltas from warehouse scanners and other high-rate callers. Adjustments
+ * are applied in small groups, and a future completes once its group has
+ * committed.
+ */
+public interface StockAdjustmentService {
+    // Completes with the product's quantity in stock after this adjustment
+    CompletableFuture<Integer> adjustStock(Long productId, int quantity);
+    // Never completes exceptionally: each adjustment reports its own outcome
+    CompletableFuture<List<StockAdjustmentResult>> adjustStock(List<StockAdjustmentRequest> adjustments);
+}
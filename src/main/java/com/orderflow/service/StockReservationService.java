@@ -0,0 +1,20 @@
+package com.orderflow.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Stock counter operations used by the order workflow. Each write returns false
+ * (instead of throwing) when the product does not have enough stock, so callers
+ * decide how to report it.
+ */
+public interface StockReservationService {
+    boolean reserveStock(Long productId, int quantity);
+    void releaseReservedStock(Long productId, int quantity);
+    boolean reduceStock(Long productId, int quantity);
+    int getAvailableStock(Long productId);
+    // Products that do not exist are left out of the result
+    Map<Long, Integer> getAvailableStock(Collection<Long> productIds);
+    void invalidate(Long productId);
+    void invalidateAll(Collection<Long> productIds);
+}
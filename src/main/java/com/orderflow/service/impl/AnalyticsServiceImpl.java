@@ -0,0 +1,87 @@
+package com.orderflow.service.impl;
+
+import com.orderflow.analytics.LiveSalesSketches;
+import com.orderflow.analytics.SalesRollups;
+import com.orderflow.exception.BadRequestException;
+import com.orderflow.model.dto.LiveSalesDTO;
+import com.orderflow.model.dto.SalesDayDTO;
+import com.orderflow.model.dto.SalesSummaryDTO;
+import com.orderflow.model.dto.SalesTotalsDTO;
+import com.orderflow.model.enums.RollupDimension;
+import com.orderflow.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Answers sales queries by merging pre-aggregated daily buckets; raw orders are
+ * only read when rollups are rebuilt. Live figures come from in-memory sketches.
+ */
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private static final long MAX_RANGE_DAYS = 3660;
+
+    private final SalesRollups salesRollups;
+    private final LiveSalesSketches liveSalesSketches;
+
+    @Autowired
+    public AnalyticsServiceImpl(SalesRollups salesRollups, LiveSalesSketches liveSalesSketches) {
+        this.salesRollups = salesRollups;
+        this.liveSalesSketches = liveSalesSketches;
+    }
+
+    @Override
+    public SalesSummaryDTO getSalesSummary(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        // Every order has exactly one segment, so the segment buckets add up to the whole
+        List<SalesDayDTO> days = salesRollups.totalsByDay(RollupDimension.SEGMENT, from, to);
+        long orders = 0;
+        long units = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (SalesDayDTO day : days) {
+            orders += day.getOrders();
+            units += day.getUnits();
+            revenue = revenue.add(day.getRevenue());
+        }
+        return new SalesSummaryDTO(from, to, orders, units, revenue, days);
+    }
+
+    @Override
+    public List<SalesTotalsDTO> getTopSales(RollupDimension dimension, LocalDate from, LocalDate to, int limit) {
+        checkRange(from, to);
+        if (limit < 1 || limit > 1000) {
+            throw new BadRequestException("Limit must be between 1 and 1000");
+        }
+        return salesRollups.totalsByKey(dimension, from, to).stream()
+            .sorted(Comparator.comparing(SalesTotalsDTO::getRevenue).reversed()
+                .thenComparing(SalesTotalsDTO::getKey))
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public void rebuildRollups(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        salesRollups.rebuild(from, to);
+    }
+
+    @Override
+    public LiveSalesDTO getLiveSales(int top) {
+        if (top < 1 || top > 100) {
+            throw new BadRequestException("Top must be between 1 and 100");
+        }
+        return liveSalesSketches.snapshot(top);
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || to.toEpochDay() - from.toEpochDay() > MAX_RANGE_DAYS) {
+            throw new BadRequestException("Date range must be ordered and at most ten years long");
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.orderflow.service.impl;
+
+import com.orderflow.catalog.CatalogImportJob;
+import com.orderflow.catalog.CatalogImporter;
+import com.orderflow.exception.RequestInProgressException;
+import com.orderflow.exception.ResourceNotFoundException;
+import com.orderflow.model.dto.CatalogImportDTO;
+import com.orderflow.model.dto.ImportRowErrorDTO;
+import com.orderflow.service.CatalogImportService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Accepts catalog files and imports them one at a time in the background; each
+ * import spreads over the importer's own worker pool. The uploaded file is
+ * spooled to the import directory, its header checked before the request returns,
+ * and deleted once the import ends. Jobs are kept in memory for the retention
+ * period so their progress and row errors can be read.
+ */
+@Service
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportServiceImpl.class);
+
+    // Uploads are spooled as <job id>.csv; nothing else in the directory is ours to delete
+    private static final Pattern OWN_FILE = Pattern.compile("[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}\\.csv");
+
+    private final CatalogImporter catalogImporter;
+    private final Path directory;
+    private final int maxErrors;
+    private final Duration retention;
+    private final ThreadPoolExecutor coordinator;
+    private final Map<String, CatalogImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CatalogImportServiceImpl(CatalogImporter catalogImporter,
+                                    @Value("${orderflow.catalog.import.dir:./data/imports}") String directory,
+                                    @Value("${orderflow.catalog.import.queue-capacity:4}") int queueCapacity,
+                                    @Value("${orderflow.catalog.import.max-errors:1000}") int maxErrors,
+                                    @Value("${orderflow.catalog.import.retention-hours:24}") long retentionHours) {
+        this.catalogImporter = catalogImporter;
+        this.directory = Paths.get(directory);
+        this.maxErrors = maxErrors;
+        this.retention = Duration.ofHours(retentionHours);
+        this.coordinator = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "catalog-import");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory,
+                file -> OWN_FILE.matcher(file.getFileName().toString()).matches() && Files.isRegularFile(file))) {
+            for (Path file : leftovers) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    @Override
+    public CatalogImportDTO startImport(InputStream body, String fileName) {
+        String id = UUID.randomUUID().toString();
+        Path file = directory.resolve(id + ".csv");
+        CatalogImportJob job;
+        try {
+            try (InputStream in = body) {
+                Files.copy(in, file);
+            }
+            catalogImporter.checkHeader(file);
+            job = new CatalogImportJob(id, fileName, file, Files.size(file), maxErrors);
+        } catch (IOException e) {
+            deleteFile(file);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            deleteFile(file);
+            throw e;
+        }
+
+        jobs.put(id, job);
+        try {
+            coordinator.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            deleteFile(file);
+            throw new RequestInProgressException("Too many catalog imports queued; try again later");
+        }
+        return toDTO(job);
+    }
+
+    @Override
+    public CatalogImportDTO getImport(String id) {
+        return toDTO(findJob(id));
+    }
+
+    @Override
+    public List<CatalogImportDTO> getImports() {
+        return jobs.values().stream()
+            .sorted(Comparator.comparing(CatalogImportJob::getCreatedAt).reversed())
+            .map(this::toDTO)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ImportRowErrorDTO> getImportErrors(String id) {
+        return findJob(id).getErrors();
+    }
+
+    @Scheduled(fixedDelayString = "${orderflow.catalog.import.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt().isBefore(cutoff));
+    }
+
+    private void run(CatalogImportJob job) {
+        job.started();
+        long started = System.currentTimeMillis();
+        try {
+            catalogImporter.run(job);
+            job.completed();
+            log.info("Catalog import {} read {} rows in {} ms: {} inserted, {} updated, {} failed",
+                job.getId(), job.getRowsRead(), System.currentTimeMillis() - started,
+                job.getInserted(), job.getUpdated(), job.getFailed());
+        } catch (Exception e) {
+            job.failed(e instanceof ExecutionException && e.getCause() != null
+                ? e.getCause().getMessage() : e.getMessage());
+            log.error("Catalog import {} failed after {} rows", job.getId(), job.getRowsRead(), e);
+        } finally {
+            deleteFile(job.getFile());
+        }
+    }
+
+    private CatalogImportJob findJob(String id) {
+        CatalogImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Catalog import", "id", id);
+        }
+        return job;
+    }
+
+    private void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete catalog file {}", file, e);
+        }
+    }
+
+    private CatalogImportDTO toDTO(CatalogImportJob job) {
+        CatalogImportDTO dto = new CatalogImportDTO();
+        dto.setId(job.getId());
+        dto.setFileName(job.getFileName());
+        dto.setStatus(job.getStatus());
+        dto.setSizeBytes(job.getSizeBytes());
+        dto.setBytesProcessed(job.getBytesProcessed());
+        dto.setRowsRead(job.getRowsRead());
+        dto.setInserted(job.getInserted());
+        dto.setUpdated(job.getUpdated());
+        dto.setFailed(job.getFailed());
+        dto.setError(job.getError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setCompletedAt(job.getCompletedAt());
+        return dto;
+    }
+}
@@ -1,25 +1,47 @@
 package com.orderflow.service.impl;
 
+import com.orderflow.cache.CatalogCache;
+import com.orderflow.category.CategoryTree;
 import com.orderflow.exception.BadRequestException;
 import com.orderflow.exception.ResourceNotFoundException;
+import com.orderflow.model.dto.CategoryNodeDTO;
 import com.orderflow.model.entity.Category;
+import com.orderflow.model.entity.Product;
 import com.orderflow.repository.CategoryRepository;
+import com.orderflow.repository.ProductRepository;
+import com.orderflow.search.ProductSearchIndex;
 import com.orderflow.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @Transactional
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final CatalogCache catalogCache;
+    private final CategoryTree categoryTree;
+    private final ProductSearchIndex productSearchIndex;
 
     @Autowired
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository,
+                               ProductRepository productRepository,
+                               CatalogCache catalogCache,
+                               CategoryTree categoryTree,
+                               ProductSearchIndex productSearchIndex) {
         this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.catalogCache = catalogCache;
+        this.categoryTree = categoryTree;
+        this.productSearchIndex = productSearchIndex;
     }
 
     @Override
@@ -27,32 +49,62 @@ public class CategoryServiceImpl implements CategoryService {
         if (categoryRepository.existsByCode(category.getCode())) {
             throw new BadRequestException("Category with code " + category.getCode() + " already exists");
         }
-        return categoryRepository.save(category);
+        Category parent = resolveParent(category.getParent());
+        category.setParent(parent);
+        // The id comes from the sequence on save, so the path is filled in afterwards
+        Category savedCategory = categoryRepository.save(category);
+        savedCategory.setPath(childPath(parent, savedCategory.getId()));
+        savedCategory.setDepth(parent == null ? 0 : parent.getDepth() + 1);
+        categoryTree.refreshAfterCommit();
+        return savedCategory;
     }
 
     @Override
     public Category updateCategory(Long id, Category category) {
-        Category existingCategory = getCategoryById(id);
+        Category existingCategory = loadCategory(id);
+        boolean renamed = !Objects.equals(existingCategory.getName(), category.getName());
         
         existingCategory.setName(category.getName());
         existingCategory.setDescription(category.getDescription());
         existingCategory.setActive(category.getActive());
-        existingCategory.setParent(category.getParent());
+
+        Category parent = resolveParent(category.getParent());
+        String oldPath = existingCategory.getPath();
+        String newPath = childPath(parent, id);
+        if (!newPath.equals(oldPath)) {
+            if (parent != null && parent.getPath().startsWith(oldPath)) {
+                throw new BadRequestException("A category cannot be moved under itself or one of its subcategories");
+            }
+            int newDepth = parent == null ? 0 : parent.getDepth() + 1;
+            int depthDelta = newDepth - existingCategory.getDepth();
+            existingCategory.setParent(parent);
+            existingCategory.setPath(newPath);
+            existingCategory.setDepth(newDepth);
+            // Flushed before the descendants are re-rooted, so the category itself no longer matches oldPath
+            categoryRepository.moveSubtree(oldPath, newPath, depthDelta);
+        }
         
-        return categoryRepository.save(existingCategory);
+        Category savedCategory = categoryRepository.save(existingCategory);
+        catalogCache.invalidateCategory(id);
+        categoryTree.refreshAfterCommit();
+        if (renamed) {
+            // Search documents carry the category name
+            productSearchIndex.productsChanged(productRepository.findIdsByCategoryId(id));
+        }
+        return savedCategory;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Category getCategoryById(Long id) {
-        return categoryRepository.findById(id)
+        return catalogCache.findCategory(id)
             .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Category getCategoryByCode(String code) {
-        return categoryRepository.findByCode(code)
+        return catalogCache.findCategoryByCode(code)
             .orElseThrow(() -> new ResourceNotFoundException("Category", "code", code));
     }
 
@@ -77,8 +129,46 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public void deleteCategory(Long id) {
-        Category category = getCategoryById(id);
+        Category category = loadCategory(id);
         category.softDelete();
         categoryRepository.save(category);
+        catalogCache.invalidateCategory(id);
+        categoryTree.refreshAfterCommit();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<CategoryNodeDTO> getCategoryTree() {
+        return categoryTree.roots();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CategoryNodeDTO getCategorySubtree(Long id) {
+        return categoryTree.find(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Product> getSubtreeProducts(Long id, Pageable pageable) {
+        return productRepository.findByCategoryPathPrefix(getCategorySubtree(id).getPath(), pageable);
+    }
+
+    private Category resolveParent(Category parent) {
+        if (parent == null || parent.getId() == null) {
+            return null;
+        }
+        return categoryRepository.findById(parent.getId())
+            .orElseThrow(() -> new ResourceNotFoundException("Category", "id", parent.getId()));
+    }
+
+    private static String childPath(Category parent, Long id) {
+        return (parent == null ? "/" : parent.getPath()) + id + "/";
+    }
+
+    private Category loadCategory(Long id) {
+        return categoryRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
     }
 }
@@ -5,25 +5,34 @@ import com.orderflow.exception.ResourceNotFoundException;
 import com.orderflow.model.entity.Customer;
 import com.orderflow.model.enums.CustomerSegment;
 import com.orderflow.repository.CustomerRepository;
+import com.orderflow.repository.OrderViewRepository;
+import com.orderflow.service.BusinessNumberGenerator;
 import com.orderflow.service.CustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final BusinessNumberGenerator businessNumberGenerator;
+    private final OrderViewRepository orderViewRepository;
 
     @Autowired
-    public CustomerServiceImpl(CustomerRepository customerRepository) {
+    public CustomerServiceImpl(CustomerRepository customerRepository,
+                               BusinessNumberGenerator businessNumberGenerator,
+                               OrderViewRepository orderViewRepository) {
         this.customerRepository = customerRepository;
+        this.businessNumberGenerator = businessNumberGenerator;
+        this.orderViewRepository = orderViewRepository;
     }
 
     @Override
@@ -34,7 +43,7 @@ public class CustomerServiceImpl implements CustomerService {
         
         // Generate customer code
         if (customer.getCustomerCode() == null || customer.getCustomerCode().isEmpty()) {
-            customer.setCustomerCode("CUST-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+            customer.setCustomerCode(businessNumberGenerator.next("CUST"));
         }
         
         return customerRepository.save(customer);
@@ -51,6 +60,10 @@ public class CustomerServiceImpl implements CustomerService {
         existingCustomer.setBillingAddress(customer.getBillingAddress());
         existingCustomer.setShippingAddress(customer.getShippingAddress());
         existingCustomer.setActive(customer.getActive());
+
+        // Keep the denormalized order views in step with the customer's name
+        orderViewRepository.updateCustomer(id,
+            existingCustomer.getFirstName() + " " + existingCustomer.getLastName(), existingCustomer.getEmail());
         
         return customerRepository.save(existingCustomer);
     }
@@ -77,9 +90,9 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<Customer> getAllCustomers() {
-        return customerRepository.findAllActiveCustomers();
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<Customer> streamAllCustomers() {
+        return customerRepository.streamAllActiveCustomers();
     }
 
     @Override
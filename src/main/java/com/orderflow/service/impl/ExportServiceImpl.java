@@ -0,0 +1,261 @@
+package com.orderflow.service.impl;
+
+import com.orderflow.exception.BadRequestException;
+import com.orderflow.exception.RequestInProgressException;
+import com.orderflow.exception.ResourceNotFoundException;
+import com.orderflow.export.DatasetExporter;
+import com.orderflow.export.ExportFile;
+import com.orderflow.export.ExportJob;
+import com.orderflow.model.dto.ExportJobDTO;
+import com.orderflow.model.dto.ExportRequest;
+import com.orderflow.model.enums.ExportFormat;
+import com.orderflow.model.enums.ExportStatus;
+import com.orderflow.service.ExportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Runs exports as background jobs on a small bounded pool and keeps the finished
+ * files in the export directory until the retention period runs out. Jobs live
+ * in memory only: export files left over from a previous run are deleted on startup.
+ * Each worker streams from an open cursor and so holds a pooled connection for
+ * the whole export; the thread count must stay below the pool size.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    // <job id>.part while an export runs, <job id>.<extension> once it is done; nothing
+    // else in the directory is ours to delete
+    private static final Pattern OWN_FILE = Pattern.compile(
+        "[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}\\.(part|" + Arrays.stream(ExportFormat.values())
+            .map(ExportFormat::getExtension).collect(Collectors.joining("|")) + ")");
+
+    private final DatasetExporter datasetExporter;
+    private final MeterRegistry meterRegistry;
+    private final Path directory;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ExportServiceImpl(DatasetExporter datasetExporter,
+                             MeterRegistry meterRegistry,
+                             @Value("${orderflow.exports.dir:./data/exports}") String directory,
+                             @Value("${orderflow.exports.threads:1}") int threads,
+                             @Value("${orderflow.exports.queue-capacity:16}") int queueCapacity,
+                             @Value("${orderflow.exports.retention-hours:24}") long retentionHours) {
+        this.datasetExporter = datasetExporter;
+        this.meterRegistry = meterRegistry;
+        this.directory = Paths.get(directory);
+        this.retention = Duration.ofHours(retentionHours);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "export-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory,
+                file -> OWN_FILE.matcher(file.getFileName().toString()).matches() && Files.isRegularFile(file))) {
+            for (Path file : leftovers) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public ExportJobDTO startExport(ExportRequest request) {
+        if (request.getDataset() == null || request.getFormat() == null) {
+            throw new BadRequestException("Dataset and format are required");
+        }
+        if (request.getFrom() != null && request.getTo() != null && request.getTo().isBefore(request.getFrom())) {
+            throw new BadRequestException("Export date range must be ordered");
+        }
+        List<String> statuses = request.getStatuses() == null ? List.of() : request.getStatuses();
+        for (String status : statuses) {
+            if (!request.getDataset().isStatus(status)) {
+                throw new BadRequestException("Unknown " + request.getDataset() + " status: " + status);
+            }
+        }
+
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), request.getDataset(), request.getFormat(),
+            request.getFrom(), request.getTo(), statuses);
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new RequestInProgressException("Too many exports queued; try again later");
+        }
+        return toDTO(job);
+    }
+
+    @Override
+    public ExportJobDTO getExport(String id) {
+        return toDTO(findJob(id));
+    }
+
+    @Override
+    public List<ExportJobDTO> getExports() {
+        return jobs.values().stream()
+            .sorted(Comparator.comparing(ExportJob::getCreatedAt).reversed())
+            .map(this::toDTO)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public ExportFile getExportFile(String id) {
+        ExportJob job = findJob(id);
+        if (job.getStatus() != ExportStatus.COMPLETED) {
+            throw new RequestInProgressException("Export " + id + " is " + job.getStatus());
+        }
+        String fileName = job.getDataset().name().toLowerCase(Locale.ROOT) + "-"
+            + job.getCreatedAt().format(FILE_STAMP) + "." + job.getFormat().getExtension();
+        return new ExportFile(job.getFile(), fileName, job.getFormat().getContentType(), job.getSizeBytes());
+    }
+
+    @Override
+    public void deleteExport(String id) {
+        ExportJob job = jobs.remove(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Export", "id", id);
+        }
+        if (job.isFinished()) {
+            deleteFile(job.getFile());
+        } else {
+            // The worker removes its own partial file when it stops
+            job.cancelled();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orderflow.exports.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (!job.isFinished() || job.getCompletedAt().isAfter(cutoff)) {
+                return false;
+            }
+            deleteFile(job.getFile());
+            return true;
+        });
+    }
+
+    private void run(ExportJob job) {
+        if (job.isFinished()) {
+            return;
+        }
+        job.started();
+        Path part = directory.resolve(job.getId() + ".part");
+        Path file = directory.resolve(job.getId() + "." + job.getFormat().getExtension());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "completed";
+        try {
+            datasetExporter.export(job, part);
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+            job.completed(file, Files.size(file));
+            log.info("Export {} of {} wrote {} rows, {} bytes", job.getId(), job.getDataset(), job.getRows(), job.getSizeBytes());
+            if (!jobs.containsKey(job.getId())) {
+                // Deleted while finishing
+                deleteFile(file);
+            }
+        } catch (Exception e) {
+            deleteFile(part);
+            if (job.getStatus() == ExportStatus.CANCELLED) {
+                outcome = "cancelled";
+            } else {
+                outcome = "failed";
+                job.failed(e.getMessage());
+                log.warn("Export {} of {} failed after {} rows", job.getId(), job.getDataset(), job.getRows(), e);
+            }
+        } finally {
+            sample.stop(Timer.builder("orderflow.exports.duration")
+                .description("Time taken to write one export file")
+                .tag("dataset", job.getDataset().name())
+                .tag("format", job.getFormat().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        }
+    }
+
+    private ExportJob findJob(String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Export", "id", id);
+        }
+        return job;
+    }
+
+    private void deleteFile(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}", file, e);
+        }
+    }
+
+    private ExportJobDTO toDTO(ExportJob job) {
+        ExportJobDTO dto = new ExportJobDTO();
+        dto.setId(job.getId());
+        dto.setDataset(job.getDataset());
+        dto.setFormat(job.getFormat());
+        dto.setFrom(job.getFrom());
+        dto.setTo(job.getTo());
+        dto.setStatuses(job.getStatuses());
+        dto.setStatus(job.getStatus());
+        dto.setRows(job.getRows());
+        dto.setSizeBytes(job.getStatus() == ExportStatus.COMPLETED ? job.getSizeBytes() : null);
+        dto.setError(job.getError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setCompletedAt(job.getCompletedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,264 @@
+package com.orderflow.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderflow.exception.IdempotencyKeyReusedException;
+import com.orderflow.exception.RequestInProgressException;
+import com.orderflow.model.entity.IdempotencyRecord;
+import com.orderflow.repository.IdempotencyRecordRepository;
+import com.orderflow.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling. Completed responses are kept in a bounded in-memory map
+ * with a TTL and persisted to the idempotency_keys table in the same transaction as
+ * the action. A repeat on this node is answered from memory. A repeat on another
+ * node, or after a restart, is answered from the table. A concurrent duplicate on
+ * this node waits for the in-flight attempt. Only 2xx responses are stored; a
+ * failed attempt leaves the key free for a retry.
+ * <p>
+ * Each key remembers a SHA-256 of the request it was first used with, taken from
+ * the request's JSON form. A repeat with a different request is rejected rather
+ * than answered with the first response.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final long waitMillis;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${orderflow.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                                  @Value("${orderflow.idempotency.max-entries:10000}") int maxEntries,
+                                  @Value("${orderflow.idempotency.wait-millis:30000}") long waitMillis) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.maxEntries = maxEntries;
+        this.waitMillis = waitMillis;
+    }
+
+    @Override
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String storeKey = scope + ":" + key;
+        String requestHash = hash(request);
+
+        while (true) {
+            Entry mine = new Entry(System.currentTimeMillis() + ttl.toMillis(), requestHash);
+            Entry existing = entries.putIfAbsent(storeKey, mine);
+            if (existing != null) {
+                if (existing.isExpired()) {
+                    entries.remove(storeKey, existing);
+                    continue;
+                }
+                checkSameRequest(existing.requestHash, requestHash);
+                StoredResponse stored = await(existing);
+                if (stored != null) {
+                    return stored.toResponse(objectMapper);
+                }
+                continue; // the in-flight attempt failed; try again ourselves
+            }
+            insertionOrder.add(storeKey);
+            evictOverflow();
+            return runOnce(storeKey, mine, action);
+        }
+    }
+
+    private ResponseEntity<?> runOnce(String storeKey, Entry entry, Supplier<ResponseEntity<?>> action) {
+        try {
+            Optional<IdempotencyRecord> persisted = idempotencyRecordRepository.findByIdempotencyKey(storeKey)
+                .filter(record -> !record.isExpired());
+            if (persisted.isPresent()) {
+                checkSameRequest(persisted.get().getRequestHash(), entry.requestHash);
+                StoredResponse stored = StoredResponse.from(persisted.get());
+                entry.result.complete(stored);
+                return stored.toResponse(objectMapper);
+            }
+
+            ResponseEntity<?>[] response = new ResponseEntity<?>[1];
+            StoredResponse stored = transactionTemplate.execute(status -> {
+                response[0] = action.get();
+                if (!response[0].getStatusCode().is2xxSuccessful()) {
+                    return null;
+                }
+                StoredResponse result = new StoredResponse(response[0].getStatusCode().value(), toJson(response[0].getBody()));
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setIdempotencyKey(storeKey);
+                record.setRequestHash(entry.requestHash);
+                record.setStatusCode(result.statusCode);
+                record.setResponseBody(result.body);
+                record.setExpiresAt(LocalDateTime.now().plus(ttl));
+                idempotencyRecordRepository.saveAndFlush(record);
+                return result;
+            });
+            if (stored == null) {
+                entries.remove(storeKey, entry);
+            }
+            entry.result.complete(stored);
+            return response[0];
+        } catch (DataIntegrityViolationException e) {
+            // Another node committed the same key first; our attempt was rolled back
+            Optional<IdempotencyRecord> winner = idempotencyRecordRepository.findByIdempotencyKey(storeKey);
+            if (winner.isEmpty()) {
+                fail(storeKey, entry);
+                throw e;
+            }
+            checkSameRequest(winner.get().getRequestHash(), entry.requestHash);
+            StoredResponse stored = StoredResponse.from(winner.get());
+            entry.result.complete(stored);
+            return stored.toResponse(objectMapper);
+        } catch (RuntimeException e) {
+            fail(storeKey, entry);
+            throw e;
+        }
+    }
+
+    private static void checkSameRequest(String originalHash, String requestHash) {
+        // Records stored before hashes were kept have none to compare
+        if (originalHash != null && !originalHash.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key was already used with a different request");
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void fail(String storeKey, Entry entry) {
+        entries.remove(storeKey, entry);
+        entry.result.complete(null);
+    }
+
+    private StoredResponse await(Entry entry) {
+        try {
+            return entry.result.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RequestInProgressException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestInProgressException("Interrupted while waiting for the original request");
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxEntries) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            Entry entry = entries.get(oldest);
+            // Never evict an in-flight attempt, or its duplicates would run again
+            if (entry != null && entry.result.isDone()) {
+                entries.remove(oldest, entry);
+            } else if (entry != null) {
+                insertionOrder.add(oldest);
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orderflow.idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        entries.entrySet().removeIf(e -> e.getValue().isExpired() && e.getValue().result.isDone());
+        insertionOrder.removeIf(key -> !entries.containsKey(key));
+        transactionTemplate.executeWithoutResult(status ->
+            idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+    }
+
+    private String toJson(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Entry {
+        final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+        final long expiresAt;
+        final String requestHash;
+
+        Entry(long expiresAt, String requestHash) {
+            this.expiresAt = expiresAt;
+            this.requestHash = requestHash;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+
+    private static final class StoredResponse {
+        final int statusCode;
+        final String body;
+
+        StoredResponse(int statusCode, String body) {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+
+        static StoredResponse from(IdempotencyRecord record) {
+            return new StoredResponse(record.getStatusCode(), record.getResponseBody());
+        }
+
+        ResponseEntity<?> toResponse(ObjectMapper objectMapper) {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.status(statusCode).header("Idempotent-Replayed", "true");
+            if (body == null) {
+                return builder.build();
+            }
+            try {
+                return builder.contentType(MediaType.APPLICATION_JSON).body(objectMapper.readTree(body));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -6,41 +6,59 @@ import com.orderflow.model.entity.Customer;
 import com.orderflow.model.entity.Invoice;
 import com.orderflow.model.entity.Order;
 import com.orderflow.model.enums.InvoiceStatus;
+import com.orderflow.model.enums.LifecycleEventType;
 import com.orderflow.model.enums.OrderStatus;
 import com.orderflow.repository.CustomerRepository;
 import com.orderflow.repository.InvoiceRepository;
 import com.orderflow.repository.OrderRepository;
+import com.orderflow.service.BusinessNumberGenerator;
 import com.orderflow.service.InvoiceService;
+import com.orderflow.service.OutboxService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 @Service
 @Transactional
 public class InvoiceServiceImpl implements InvoiceService {
 
+    // Matches the (status, due_date, id) index, so a page is a range read
+    private static final Sort OVERDUE_ORDER = Sort.by("dueDate", "id");
+
     private final InvoiceRepository invoiceRepository;
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
+    private final BusinessNumberGenerator businessNumberGenerator;
+    private final OutboxService outboxService;
 
     @Autowired
     public InvoiceServiceImpl(InvoiceRepository invoiceRepository,
                              OrderRepository orderRepository,
-                             CustomerRepository customerRepository) {
+                             CustomerRepository customerRepository,
+                             BusinessNumberGenerator businessNumberGenerator,
+                             OutboxService outboxService) {
         this.invoiceRepository = invoiceRepository;
         this.orderRepository = orderRepository;
         this.customerRepository = customerRepository;
+        this.businessNumberGenerator = businessNumberGenerator;
+        this.outboxService = outboxService;
     }
 
     @Override
     public Invoice createInvoice(Invoice invoice) {
         // Generate invoice number
         if (invoice.getInvoiceNumber() == null || invoice.getInvoiceNumber().isEmpty()) {
-            invoice.setInvoiceNumber("INV-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+            invoice.setInvoiceNumber(businessNumberGenerator.next("INV"));
         }
         
         // Set invoice date
@@ -118,8 +136,22 @@ public class InvoiceServiceImpl implements InvoiceService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Invoice> getOverdueInvoices() {
-        return invoiceRepository.findOverdueInvoices();
+    public Page<Invoice> getOverdueInvoices(Pageable pageable) {
+        if (pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), OVERDUE_ORDER);
+        }
+        return invoiceRepository.findByStatus(InvoiceStatus.OVERDUE, pageable);
+    }
+
+    @Override
+    public int markOverdueInvoices(LocalDate today, int limit) {
+        List<Long> ids = invoiceRepository.findByStatusAndDueDateBefore(InvoiceStatus.SENT, today,
+            PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return invoiceRepository.transitionStatus(ids, InvoiceStatus.SENT, InvoiceStatus.OVERDUE, today,
+            LocalDateTime.now());
     }
 
     @Override
@@ -134,5 +166,10 @@ public class InvoiceServiceImpl implements InvoiceService {
         Invoice invoice = getInvoiceById(invoiceId);
         invoice.markAsPaid();
         invoiceRepository.save(invoice);
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("invoiceNumber", invoice.getInvoiceNumber());
+        payload.put("totalAmount", invoice.getTotalAmount());
+        outboxService.record("Invoice", invoice.getId(), LifecycleEventType.INVOICE_PAID, payload);
     }
 }
@@ -0,0 +1,242 @@
+package com.orderflow.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderflow.exception.BadRequestException;
+import com.orderflow.exception.ResourceNotFoundException;
+import com.orderflow.model.dto.OrderPageDTO;
+import com.orderflow.model.dto.OrderResponseDTO;
+import com.orderflow.model.dto.OrderSearchCriteria;
+import com.orderflow.model.entity.Customer;
+import com.orderflow.model.entity.Order;
+import com.orderflow.model.entity.OrderView;
+import com.orderflow.repository.OrderRepository;
+import com.orderflow.repository.OrderViewRepository;
+import com.orderflow.service.OrderQueryService;
+import jakarta.persistence.criteria.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Serves order reads from the order_views projection. The order write path calls
+ * refresh in the same transaction as the change, so a view never lags its order.
+ * Orders without a view (created before the projection existed) are backfilled at
+ * startup and, failing that, projected on first read.
+ * <p>
+ * Listings are keyset-paginated on (order_date, order_id), newest first. The
+ * cursor carries the key of the last row returned, so every page is one indexed
+ * range scan of limit + 1 rows no matter how deep it is.
+ */
+@Service
+@Transactional
+public class OrderQueryServiceImpl implements OrderQueryService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderQueryServiceImpl.class);
+    private static final TypeReference<List<OrderResponseDTO.OrderItemDTO>> ITEMS = new TypeReference<>() {};
+    private static final int BACKFILL_BATCH = 500;
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Order.desc("orderDate"), Sort.Order.desc("orderId"));
+    private static final String CURSOR_SEPARATOR = ",";
+
+    private final OrderViewRepository orderViewRepository;
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public OrderQueryServiceImpl(OrderViewRepository orderViewRepository,
+                                 OrderRepository orderRepository,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.orderViewRepository = orderViewRepository;
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public OrderResponseDTO getOrder(Long id) {
+        return orderViewRepository.findById(id)
+            .map(this::toResponse)
+            .orElseGet(() -> {
+                Order order = orderRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+                refresh(order);
+                return OrderResponseDTO.from(order);
+            });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPageDTO findOrders(OrderSearchCriteria criteria, String cursor, int limit) {
+        Specification<OrderView> spec = matching(criteria);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(after(cursor));
+        }
+        // One extra row tells us whether there is a next page without a count query
+        List<OrderView> rows = orderViewRepository.findBy(spec, query -> query
+            .sortBy(KEYSET_ORDER)
+            .limit(limit + 1)
+            .all());
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = encodeCursor(rows.get(limit - 1));
+        }
+        List<OrderResponseDTO> orders = rows.stream()
+            .map(this::toResponse)
+            .collect(Collectors.toList());
+        return new OrderPageDTO(orders, nextCursor);
+    }
+
+    @Override
+    public void refresh(Order order) {
+        OrderView view = orderViewRepository.findById(order.getId()).orElseGet(OrderView::new);
+        view.setOrderId(order.getId());
+        view.setOrderNumber(order.getOrderNumber());
+        view.setOrderDate(order.getOrderDate());
+        view.setStatus(order.getStatus().name());
+        view.setSubtotal(order.getSubtotal());
+        view.setTaxAmount(order.getTaxAmount());
+        view.setTotalAmount(order.getTotalAmount());
+        view.setNotes(order.getNotes());
+
+        Customer customer = order.getCustomer();
+        if (customer != null) {
+            view.setCustomerId(customer.getId());
+            view.setCustomerName(customer.getFirstName() + " " + customer.getLastName());
+            view.setCustomerEmail(customer.getEmail());
+        }
+
+        List<OrderResponseDTO.OrderItemDTO> items = new ArrayList<>();
+        if (order.getItems() != null) {
+            order.getItems().forEach(item -> items.add(OrderResponseDTO.OrderItemDTO.from(item)));
+        }
+        try {
+            view.setItems(objectMapper.writeValueAsString(items));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        orderViewRepository.save(view);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfill() {
+        List<Long> missing = orderViewRepository.findOrderIdsWithoutView();
+        for (int from = 0; from < missing.size(); from += BACKFILL_BATCH) {
+            List<Long> batch = missing.subList(from, Math.min(missing.size(), from + BACKFILL_BATCH));
+            transactionTemplate.executeWithoutResult(status ->
+                orderRepository.findAllWithItemsByIdIn(batch).forEach(this::refresh));
+        }
+        if (!missing.isEmpty()) {
+            log.info("Backfilled order views for {} orders", missing.size());
+        }
+    }
+
+    /**
+     * Adds only the predicates that are set, so the planner sees a plain range
+     * condition it can serve from the matching (..., order_date, order_id) index.
+     */
+    private static Specification<OrderView> matching(OrderSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.getStatus().name()));
+            }
+            if (criteria.getCustomerId() != null) {
+                predicates.add(cb.equal(root.get("customerId"), criteria.getCustomerId()));
+            }
+            if (criteria.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("orderDate"), criteria.getFrom()));
+            }
+            if (criteria.getTo() != null) {
+                predicates.add(cb.lessThan(root.get("orderDate"), criteria.getTo()));
+            }
+            if (criteria.getMinAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("totalAmount"), criteria.getMinAmount()));
+            }
+            if (criteria.getMaxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("totalAmount"), criteria.getMaxAmount()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Rows strictly after the cursor key in (order_date desc, order_id desc) order.
+     */
+    private static Specification<OrderView> after(String cursor) {
+        String[] key = decodeCursor(cursor);
+        LocalDateTime orderDate;
+        long orderId;
+        try {
+            orderDate = LocalDateTime.parse(key[0]);
+            orderId = Long.parseLong(key[1]);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return (root, query, cb) -> cb.or(
+            cb.lessThan(root.get("orderDate"), orderDate),
+            cb.and(cb.equal(root.get("orderDate"), orderDate), cb.lessThan(root.get("orderId"), orderId)));
+    }
+
+    private static String encodeCursor(OrderView last) {
+        String key = last.getOrderDate() + CURSOR_SEPARATOR + last.getOrderId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        String[] key;
+        try {
+            key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(CURSOR_SEPARATOR);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (key.length != 2) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return key;
+    }
+
+    private OrderResponseDTO toResponse(OrderView view) {
+        OrderResponseDTO dto = new OrderResponseDTO();
+        dto.setId(view.getOrderId());
+        dto.setOrderNumber(view.getOrderNumber());
+        dto.setCustomerId(view.getCustomerId());
+        dto.setCustomerName(view.getCustomerName());
+        dto.setCustomerEmail(view.getCustomerEmail());
+        dto.setOrderDate(view.getOrderDate());
+        dto.setStatus(view.getStatus());
+        dto.setSubtotal(view.getSubtotal());
+        dto.setTaxAmount(view.getTaxAmount());
+        dto.setTotalAmount(view.getTotalAmount());
+        dto.setNotes(view.getNotes());
+        try {
+            dto.setItems(view.getItems() == null ? null : objectMapper.readValue(view.getItems(), ITEMS));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return dto;
+    }
+}
@@ -1,25 +1,44 @@
 package com.orderflow.service.impl;
 
+import com.orderflow.analytics.LiveSalesSketches;
+import com.orderflow.analytics.SalesRollups;
+import com.orderflow.customer.CustomerTotalsAccumulator;
+import com.orderflow.event.OrderPlacedEvent;
 import com.orderflow.exception.BadRequestException;
 import com.orderflow.exception.InsufficientStockException;
 import com.orderflow.exception.OrderProcessingException;
 import com.orderflow.exception.ResourceNotFoundException;
+import com.orderflow.journal.JournalRecordType;
+import com.orderflow.journal.OrderJournal;
+import com.orderflow.model.dto.OrderBatchResult;
+import com.orderflow.model.dto.OrderStatusResult;
 import com.orderflow.model.entity.*;
+import com.orderflow.model.enums.LifecycleEventType;
 import com.orderflow.model.enums.OrderStatus;
+import com.orderflow.pricing.PricingEngine;
 import com.orderflow.repository.CustomerRepository;
 import com.orderflow.repository.OrderRepository;
 import com.orderflow.repository.ProductRepository;
+import com.orderflow.service.BusinessNumberGenerator;
+import com.orderflow.service.OrderQueryService;
 import com.orderflow.service.OrderService;
+import com.orderflow.service.OutboxService;
+import com.orderflow.service.StockReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 @Transactional
@@ -34,8 +53,52 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private BusinessNumberGenerator businessNumberGenerator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private CustomerTotalsAccumulator customerTotalsAccumulator;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OrderJournal orderJournal;
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private SalesRollups salesRollups;
+
+    @Autowired
+    private LiveSalesSketches liveSalesSketches;
+
     @Override
     public Order createOrder(Order order) {
+        Map<Long, Integer> quantities = prepareOrder(order);
+        return persistOrder(order, quantities);
+    }
+
+    /**
+     * Validates, prices and reserves stock for a new order, and returns its
+     * quantities per product. Writes nothing but the reservations, and releases
+     * those again if it throws.
+     */
+    private Map<Long, Integer> prepareOrder(Order order) {
+        if (order.getCustomer() == null || order.getCustomer().getId() == null) {
+            throw new BadRequestException("Order must reference a customer");
+        }
+
         // Fetch fresh customer from database
         Customer customer = customerRepository.findById(order.getCustomer().getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
@@ -50,52 +113,89 @@ public class OrderServiceImpl implements OrderService {
 
         // Set customer
         order.setCustomer(customer);
+        order.setCustomerSegment(customer.getSegment());
         
         // Generate order number
-        order.setOrderNumber("ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        order.setOrderNumber(businessNumberGenerator.next("ORD"));
         order.setOrderDate(LocalDateTime.now());
         order.setStatus(OrderStatus.PENDING);
 
-        BigDecimal subtotal = BigDecimal.ZERO;
-
-        // Process order items
-        for (OrderItem item : order.getItems()) {
-            // Fetch fresh product from database
-            Product product = productRepository.findById(item.getProduct().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + item.getProduct().getId()));
+        // Load all line products and their categories in one query
+        Map<Long, Integer> quantities = quantitiesByProduct(order.getItems());
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllWithCategoryByIdIn(quantities.keySet())) {
+            products.put(product.getId(), product);
+        }
 
-            // Reserve stock
-            product.reserveStock(item.getQuantity());
-            productRepository.save(product);
+        for (Long productId : quantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product not found: " + productId);
+            }
+        }
 
-            // Set item properties
+        // Price before reserving, so a rejected order never holds stock
+        for (OrderItem item : order.getItems()) {
+            Product product = products.get(item.getProduct().getId());
             item.setOrder(order);
             item.setProduct(product);
             item.setProductName(product.getName());
             item.setProductSku(product.getSku());
-            item.setUnitPrice(product.getPrice());
-            
-            BigDecimal lineTotal = product.getPrice().multiply(new BigDecimal(item.getQuantity()));
-            if (item.getDiscount() != null) {
-                lineTotal = lineTotal.subtract(item.getDiscount());
-            }
-            item.setLineTotal(lineTotal);
-            
-            subtotal = subtotal.add(lineTotal);
+            item.setCategoryId(product.getCategory() != null ? product.getCategory().getId() : null);
         }
+        pricingEngine.price(order);
 
-        order.setSubtotal(subtotal);
-        
-        BigDecimal taxAmount = subtotal.multiply(new BigDecimal("0.18"));
-        order.setTaxAmount(taxAmount);
-        
-        BigDecimal totalAmount = subtotal.add(taxAmount);
-        if (order.getDiscountAmount() != null) {
-            totalAmount = totalAmount.subtract(order.getDiscountAmount());
+        // Reserve stock per product in ascending id order to avoid deadlocks
+        Map<Long, Integer> reserved = new TreeMap<>();
+        try {
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                if (!stockReservationService.reserveStock(entry.getKey(), entry.getValue())) {
+                    throw new InsufficientStockException("Insufficient stock for product: " + products.get(entry.getKey()).getName());
+                }
+                reserved.put(entry.getKey(), entry.getValue());
+            }
+        } catch (RuntimeException ex) {
+            // Undo this order's partial reservations so a caller sharing the
+            // transaction (batch intake) can carry on with the next order
+            for (Map.Entry<Long, Integer> done : reserved.entrySet()) {
+                stockReservationService.releaseReservedStock(done.getKey(), done.getValue());
+            }
+            throw ex;
         }
-        order.setTotalAmount(totalAmount);
+        return quantities;
+    }
 
-        return orderRepository.save(order);
+    private Order persistOrder(Order order, Map<Long, Integer> quantities) {
+        Order savedOrder = orderRepository.save(order);
+        recordEvent(savedOrder, LifecycleEventType.ORDER_CREATED, null);
+        orderJournal.recordItems(savedOrder.getId(), quantities, JournalRecordType.ITEM_RESERVED);
+        eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder.getId(), savedOrder.getOrderDate()));
+        return savedOrder;
+    }
+
+    /**
+     * Creates a chunk of orders in one transaction. Only a rejection from
+     * prepareOrder, which leaves nothing behind, is reported against its line;
+     * anything thrown once an order is being written fails the whole chunk, as
+     * does a database error that has already marked the transaction rollback-only.
+     */
+    @Override
+    public List<OrderBatchResult> createOrders(List<Order> orders, int firstLine) {
+        List<OrderBatchResult> results = new ArrayList<>(orders.size());
+        int line = firstLine;
+        for (Order order : orders) {
+            Map<Long, Integer> quantities;
+            try {
+                quantities = prepareOrder(order);
+            } catch (RuntimeException ex) {
+                if (TransactionAspectSupport.currentTransactionStatus().isRollbackOnly()) {
+                    throw ex;
+                }
+                results.add(OrderBatchResult.failed(line++, ex.getMessage()));
+                continue;
+            }
+            results.add(OrderBatchResult.created(line++, persistOrder(order, quantities)));
+        }
+        return results;
     }
 
     @Override
@@ -144,17 +244,97 @@ public class OrderServiceImpl implements OrderService {
         order.setStatus(newStatus);
 
         if (newStatus == OrderStatus.CONFIRMED && oldStatus == OrderStatus.PENDING) {
-            for (OrderItem item : order.getItems()) {
-                Product product = item.getProduct();
-                product.reduceStock(item.getQuantity());
-                productRepository.save(product);
+            Map<Long, Integer> quantities = quantitiesByProduct(order.getItems());
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                if (!stockReservationService.reduceStock(entry.getKey(), entry.getValue())) {
+                    throw new InsufficientStockException("Insufficient stock for product id: " + entry.getKey());
+                }
             }
+            orderJournal.recordItems(order.getId(), quantities, JournalRecordType.ITEM_SOLD);
             updateCustomerAfterOrder(order);
+        } else if (newStatus == OrderStatus.CANCELLED && oldStatus == OrderStatus.PENDING) {
+            // Same settlement as the bulk path, which bulk requests fall back to per order
+            Map<Long, Integer> quantities = quantitiesByProduct(order.getItems());
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                stockReservationService.releaseReservedStock(entry.getKey(), entry.getValue());
+            }
+            orderJournal.recordItems(order.getId(), quantities, JournalRecordType.ITEM_RELEASED);
         }
 
+        recordEvent(order, LifecycleEventType.ORDER_STATUS_CHANGED, oldStatus);
         return orderRepository.save(order);
     }
 
+    /**
+     * Moves a set of orders to one status in a single transaction. Orders that are
+     * missing or cannot make the transition are reported and skipped. Stock is
+     * settled with one update per product across all orders, and customer totals
+     * are accumulated per customer. If a product lacks stock for the combined
+     * quantity an InsufficientStockException rolls back the whole set, and the
+     * caller can retry the orders one at a time.
+     */
+    @Override
+    public List<OrderStatusResult> updateOrderStatuses(List<Long> orderIds, OrderStatus newStatus) {
+        Map<Long, Order> orders = new HashMap<>();
+        for (Order order : orderRepository.findAllWithItemsByIdIn(orderIds)) {
+            orders.put(order.getId(), order);
+        }
+
+        List<OrderStatusResult> results = new ArrayList<>(orderIds.size());
+        List<Order> accepted = new ArrayList<>();
+        List<OrderItem> confirmedItems = new ArrayList<>();
+        List<OrderItem> cancelledItems = new ArrayList<>();
+        List<Order> confirmed = new ArrayList<>();
+        List<Order> cancelled = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            Order order = orders.get(orderId);
+            if (order == null) {
+                results.add(OrderStatusResult.failed(orderId, "Order not found with id: " + orderId));
+                continue;
+            }
+            OrderStatus oldStatus = order.getStatus();
+            if (!oldStatus.canTransitionTo(newStatus)) {
+                results.add(OrderStatusResult.failed(orderId,
+                    "Cannot transition order from " + oldStatus + " to " + newStatus));
+                continue;
+            }
+            if (oldStatus == OrderStatus.PENDING && newStatus == OrderStatus.CONFIRMED) {
+                confirmedItems.addAll(order.getItems());
+                confirmed.add(order);
+            } else if (oldStatus == OrderStatus.PENDING && newStatus == OrderStatus.CANCELLED) {
+                cancelledItems.addAll(order.getItems());
+                cancelled.add(order);
+            }
+            accepted.add(order);
+            results.add(OrderStatusResult.updated(orderId, newStatus));
+        }
+
+        for (Map.Entry<Long, Integer> entry : quantitiesByProduct(confirmedItems).entrySet()) {
+            if (!stockReservationService.reduceStock(entry.getKey(), entry.getValue())) {
+                throw new InsufficientStockException("Insufficient stock for product id: " + entry.getKey());
+            }
+        }
+        for (Map.Entry<Long, Integer> entry : quantitiesByProduct(cancelledItems).entrySet()) {
+            stockReservationService.releaseReservedStock(entry.getKey(), entry.getValue());
+        }
+
+        for (Order order : confirmed) {
+            orderJournal.recordItems(order.getId(), quantitiesByProduct(order.getItems()), JournalRecordType.ITEM_SOLD);
+            updateCustomerAfterOrder(order);
+        }
+        for (Order order : cancelled) {
+            orderJournal.recordItems(order.getId(), quantitiesByProduct(order.getItems()), JournalRecordType.ITEM_RELEASED);
+        }
+
+        for (Order order : accepted) {
+            OrderStatus oldStatus = order.getStatus();
+            order.setStatus(newStatus);
+            recordEvent(order, LifecycleEventType.ORDER_STATUS_CHANGED, oldStatus);
+        }
+        orderRepository.saveAll(accepted);
+        return results;
+    }
+
     @Override
     public void cancelOrder(Long orderId, String reason) {
         Order order = getOrderById(orderId);
@@ -163,29 +343,87 @@ public class OrderServiceImpl implements OrderService {
             throw new OrderProcessingException("Cannot cancel order in status: " + order.getStatus());
         }
 
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            product.releaseReservedStock(item.getQuantity());
-            productRepository.save(product);
+        Map<Long, Integer> quantities = quantitiesByProduct(order.getItems());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            stockReservationService.releaseReservedStock(entry.getKey(), entry.getValue());
         }
+        orderJournal.recordItems(order.getId(), quantities, JournalRecordType.ITEM_RELEASED);
 
+        OrderStatus oldStatus = order.getStatus();
         order.setStatus(OrderStatus.CANCELLED);
         if (reason != null) {
             order.setNotes(reason);
         }
+        recordEvent(order, LifecycleEventType.ORDER_CANCELLED, oldStatus);
         orderRepository.save(order);
     }
 
+    /**
+     * Cancels the given orders that are still PENDING and were placed before the
+     * cutoff, releasing their reservations with one update per product.
+     */
+    @Override
+    public int expireReservations(List<Long> orderIds, LocalDateTime placedBefore) {
+        List<Order> expired = new ArrayList<>();
+        List<OrderItem> items = new ArrayList<>();
+        for (Order order : orderRepository.findAllWithItemsByIdIn(orderIds)) {
+            if (order.getStatus() == OrderStatus.PENDING
+                    && order.getStatus().canTransitionTo(OrderStatus.CANCELLED)
+                    && order.getOrderDate().isBefore(placedBefore)) {
+                expired.add(order);
+                items.addAll(order.getItems());
+            }
+        }
+
+        for (Map.Entry<Long, Integer> entry : quantitiesByProduct(items).entrySet()) {
+            stockReservationService.releaseReservedStock(entry.getKey(), entry.getValue());
+        }
+        for (Order order : expired) {
+            order.setStatus(OrderStatus.CANCELLED);
+            order.setNotes("Reservation expired");
+            recordEvent(order, LifecycleEventType.ORDER_CANCELLED, OrderStatus.PENDING);
+            orderJournal.recordItems(order.getId(), quantitiesByProduct(order.getItems()), JournalRecordType.ITEM_RELEASED);
+        }
+        orderRepository.saveAll(expired);
+        return expired.size();
+    }
+
     private void updateCustomerAfterOrder(Order order) {
-        Customer customer = order.getCustomer();
-        
-        Integer currentOrders = customer.getTotalOrders() != null ? customer.getTotalOrders() : 0;
-        customer.setTotalOrders(currentOrders + 1);
-        
-        BigDecimal currentSpent = customer.getTotalSpent() != null ? customer.getTotalSpent() : BigDecimal.ZERO;
-        customer.setTotalSpent(currentSpent.add(order.getTotalAmount()));
-        
-        customer.autoUpdateSegment();
-        customerRepository.save(customer);
+        // Totals are accumulated and flushed later, so confirmation never locks the customer row
+        customerTotalsAccumulator.recordOrder(order.getCustomer().getId(), order.getTotalAmount());
+    }
+
+    private void recordEvent(Order order, LifecycleEventType eventType, OrderStatus previousStatus) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderNumber", order.getOrderNumber());
+        payload.put("customerId", order.getCustomer().getId());
+        payload.put("status", order.getStatus());
+        if (previousStatus != null) {
+            payload.put("previousStatus", previousStatus);
+        }
+        payload.put("totalAmount", order.getTotalAmount());
+        outboxService.record("Order", order.getId(), eventType, payload);
+        orderJournal.recordOrder(order);
+        orderQueryService.refresh(order);
+        salesRollups.statusChanged(order, previousStatus);
+        liveSalesSketches.orderEvent(order, previousStatus);
+    }
+
+    /**
+     * Sums line quantities per product, ordered by product id so that stock
+     * rows are always locked in the same order.
+     */
+    private Map<Long, Integer> quantitiesByProduct(List<OrderItem> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : items) {
+            if (item.getProduct() == null || item.getProduct().getId() == null) {
+                throw new BadRequestException("Order item must reference a product");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new BadRequestException("Item quantity must be greater than zero");
+            }
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
     }
 }
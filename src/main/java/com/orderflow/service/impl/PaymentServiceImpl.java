@@ -2,21 +2,28 @@ package com.orderflow.service.impl;
 
 import com.orderflow.exception.BadRequestException;
 import com.orderflow.exception.ResourceNotFoundException;
+import com.orderflow.journal.OrderJournal;
 import com.orderflow.model.entity.Invoice;
 import com.orderflow.model.entity.Payment;
 import com.orderflow.model.enums.InvoiceStatus;
+import com.orderflow.model.enums.LifecycleEventType;
 import com.orderflow.model.enums.PaymentStatus;
 import com.orderflow.repository.InvoiceRepository;
 import com.orderflow.repository.PaymentRepository;
+import com.orderflow.service.BusinessNumberGenerator;
+import com.orderflow.service.OutboxService;
 import com.orderflow.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -24,19 +31,28 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final InvoiceRepository invoiceRepository;
+    private final BusinessNumberGenerator businessNumberGenerator;
+    private final OutboxService outboxService;
+    private final OrderJournal orderJournal;
 
     @Autowired
     public PaymentServiceImpl(PaymentRepository paymentRepository,
-                             InvoiceRepository invoiceRepository) {
+                             InvoiceRepository invoiceRepository,
+                             BusinessNumberGenerator businessNumberGenerator,
+                             OutboxService outboxService,
+                             OrderJournal orderJournal) {
         this.paymentRepository = paymentRepository;
         this.invoiceRepository = invoiceRepository;
+        this.businessNumberGenerator = businessNumberGenerator;
+        this.outboxService = outboxService;
+        this.orderJournal = orderJournal;
     }
 
     @Override
     public Payment createPayment(Payment payment) {
         // Generate reference number
         if (payment.getReferenceNumber() == null || payment.getReferenceNumber().isEmpty()) {
-            payment.setReferenceNumber("PAY-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+            payment.setReferenceNumber(businessNumberGenerator.next("PAY"));
         }
         
         return paymentRepository.save(payment);
@@ -66,7 +82,7 @@ public class PaymentServiceImpl implements PaymentService {
         
         // Simulate payment processing (in real app, this would call payment gateway)
         // For now, automatically mark as completed
-        savedPayment.markAsCompleted("TXN-" + UUID.randomUUID().toString().substring(0, 12).toUpperCase());
+        savedPayment.markAsCompleted(businessNumberGenerator.next("TXN"));
         savedPayment = paymentRepository.save(savedPayment);
         
         // Update invoice
@@ -78,6 +94,14 @@ public class PaymentServiceImpl implements PaymentService {
         }
         
         invoiceRepository.save(invoice);
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("paymentId", savedPayment.getId());
+        payload.put("referenceNumber", savedPayment.getReferenceNumber());
+        payload.put("amount", savedPayment.getAmount());
+        payload.put("invoiceStatus", invoice.getStatus());
+        outboxService.record("Invoice", invoice.getId(), LifecycleEventType.PAYMENT_COMPLETED, payload);
+        orderJournal.recordPayment(savedPayment, invoice.getOrder().getId());
         
         return savedPayment;
     }
@@ -105,9 +129,9 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<Payment> getPaymentsByStatus(PaymentStatus status) {
-        return paymentRepository.findByStatus(status);
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<Payment> streamPaymentsByStatus(PaymentStatus status) {
+        return paymentRepository.streamByStatus(status);
     }
 
     @Override
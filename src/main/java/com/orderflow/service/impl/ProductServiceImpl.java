@@ -1,28 +1,52 @@
 package com.orderflow.service.impl;
 
+import com.orderflow.cache.CatalogCache;
 import com.orderflow.exception.BadRequestException;
-import com.orderflow.exception.InsufficientStockException;
 import com.orderflow.exception.ResourceNotFoundException;
+import com.orderflow.inventory.LowStockIndex;
 import com.orderflow.model.entity.Product;
 import com.orderflow.repository.ProductRepository;
+import com.orderflow.search.ProductSearchIndex;
+import com.orderflow.search.SearchHits;
 import com.orderflow.service.ProductService;
+import com.orderflow.service.StockReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final StockReservationService stockReservationService;
+    private final ProductSearchIndex productSearchIndex;
+    private final CatalogCache catalogCache;
+    private final LowStockIndex lowStockIndex;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository,
+                              StockReservationService stockReservationService,
+                              ProductSearchIndex productSearchIndex,
+                              CatalogCache catalogCache,
+                              LowStockIndex lowStockIndex) {
         this.productRepository = productRepository;
+        this.stockReservationService = stockReservationService;
+        this.productSearchIndex = productSearchIndex;
+        this.catalogCache = catalogCache;
+        this.lowStockIndex = lowStockIndex;
     }
 
     @Override
@@ -30,12 +54,15 @@ public class ProductServiceImpl implements ProductService {
         if (productRepository.existsBySku(product.getSku())) {
             throw new BadRequestException("Product with SKU " + product.getSku() + " already exists");
         }
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        productSearchIndex.productChanged(savedProduct.getId());
+        lowStockIndex.stockChanged(savedProduct.getId());
+        return savedProduct;
     }
 
     @Override
     public Product updateProduct(Long id, Product product) {
-        Product existingProduct = getProductById(id);
+        Product existingProduct = loadProduct(id);
         
         existingProduct.setName(product.getName());
         existingProduct.setDescription(product.getDescription());
@@ -46,27 +73,32 @@ public class ProductServiceImpl implements ProductService {
         existingProduct.setQuantityInStock(product.getQuantityInStock());
         existingProduct.setCategory(product.getCategory());
         
-        return productRepository.save(existingProduct);
+        Product savedProduct = productRepository.save(existingProduct);
+        stockReservationService.invalidate(id);
+        catalogCache.invalidateProduct(id);
+        productSearchIndex.productChanged(id);
+        lowStockIndex.stockChanged(id);
+        return savedProduct;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Product getProductById(Long id) {
-        return productRepository.findById(id)
+        return catalogCache.findProduct(id)
             .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Product getProductBySku(String sku) {
-        return productRepository.findBySku(sku)
+        return catalogCache.findProductBySku(sku)
             .orElseThrow(() -> new ResourceNotFoundException("Product", "sku", sku));
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<Product> getAllProducts() {
-        return productRepository.findAllActiveProducts();
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<Product> streamAllProducts() {
+        return productRepository.streamAllActiveProducts();
     }
 
     @Override
@@ -78,37 +110,45 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public List<Product> getLowStockProducts() {
-        return productRepository.findLowStockProducts();
+        List<Long> ids = lowStockIndex.lowStockIds().orElseGet(productRepository::findLowStockProductIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+            .map(products::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Product> searchProducts(String keyword, Pageable pageable) {
+        // The index ranks by relevance; an explicit sort goes to SQL
+        if (pageable.getSort().isUnsorted()) {
+            Optional<SearchHits> hits = productSearchIndex.search(keyword, (int) pageable.getOffset(), pageable.getPageSize());
+            if (hits.isPresent()) {
+                Map<Long, Product> products = productRepository.findAllById(hits.get().getProductIds()).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+                List<Product> ranked = hits.get().getProductIds().stream()
+                    .map(products::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+                return new PageImpl<>(ranked, pageable, hits.get().getTotal());
+            }
+        }
         return productRepository.searchProducts(keyword, pageable);
     }
 
     @Override
     public void deleteProduct(Long id) {
-        Product product = getProductById(id);
+        Product product = loadProduct(id);
         product.softDelete();
         productRepository.save(product);
-    }
-
-    @Override
-    public void updateStock(Long productId, Integer quantity) {
-        Product product = getProductById(productId);
-        
-        if (quantity < 0 && product.getAvailableStock() < Math.abs(quantity)) {
-            throw new InsufficientStockException("Insufficient stock for product: " + product.getName());
-        }
-        
-        int newStock = product.getQuantityInStock() + quantity;
-        if (newStock < 0) {
-            throw new InsufficientStockException("Stock cannot be negative");
-        }
-        
-        product.setQuantityInStock(newStock);
-        productRepository.save(product);
+        catalogCache.invalidateProduct(id);
+        productSearchIndex.productRemoved(id);
+        lowStockIndex.stockChanged(id);
     }
 
     @Override
@@ -116,4 +156,10 @@ public class ProductServiceImpl implements ProductService {
     public boolean existsBySku(String sku) {
         return productRepository.existsBySku(sku);
     }
+
+    // Write paths need a managed entity, never the shared cached snapshot
+    private Product loadProduct(Long id) {
+        return productRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+    }
 }
@@ -0,0 +1,69 @@
+package com.orderflow.service.impl;
+
+import com.orderflow.service.BusinessNumberGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style ids: 41 bits of milliseconds since 2024-01-01, 10 bits of node id
+ * and a 12-bit per-millisecond sequence. Allocation is a single CAS on the packed
+ * (timestamp, sequence) state. If the clock goes backwards, or a millisecond's
+ * sequence runs out, the generator keeps counting on its own last timestamp. Numbers
+ * therefore stay monotonic on a node and unique across nodes with distinct node ids.
+ *
+ * The text form is the prefix followed by 13 Crockford base32 characters. The width
+ * is fixed, so string order matches numeric (creation) order.
+ */
+@Service
+public class SnowflakeNumberGenerator implements BusinessNumberGenerator {
+
+    private static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long node;
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last id issued
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeNumberGenerator(@Value("${orderflow.ids.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("orderflow.ids.node-id must be between 0 and " + MAX_NODE);
+        }
+        this.node = nodeId;
+    }
+
+    @Override
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            // A fresh millisecond starts at sequence 0; otherwise advance, carrying into the timestamp
+            next = now > previous ? now : previous + 1;
+        } while (!state.compareAndSet(previous, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+    }
+
+    @Override
+    public String next(String prefix) {
+        long id = nextId();
+        int length = prefix.length();
+        char[] chars = new char[length + 1 + ENCODED_LENGTH];
+        prefix.getChars(0, length, chars, 0);
+        chars[length] = '-';
+        for (int i = chars.length - 1; i > length; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,292 @@
+package com.orderflow.service.impl;
+
+import com.orderflow.cache.CatalogCache;
+import com.orderflow.exception.BadRequestException;
+import com.orderflow.exception.InsufficientStockException;
+import com.orderflow.exception.RequestInProgressException;
+import com.orderflow.exception.ResourceNotFoundException;
+import com.orderflow.inventory.LowStockIndex;
+import com.orderflow.model.dto.StockAdjustmentRequest;
+import com.orderflow.model.dto.StockAdjustmentResult;
+import com.orderflow.service.StockAdjustmentService;
+import com.orderflow.service.StockReservationService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for stock deltas. Callers enqueue adjustments and get a future; one
+ * writer thread takes whatever arrives within a short window of the first
+ * adjustment (up to max-batch) and applies it in one transaction: the products
+ * are locked in id order, each delta is checked in arrival order against the
+ * available stock less the deltas already accepted before it, and the net change
+ * per product is written with a single UPDATE. Futures complete after commit.
+ * <p>
+ * A rejected delta fails only its own future. If the transaction itself fails,
+ * every adjustment in the batch fails with it and nothing is applied.
+ */
+@Service
+public class StockAdjustmentServiceImpl implements StockAdjustmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockAdjustmentServiceImpl.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockReservationService stockReservationService;
+    private final CatalogCache catalogCache;
+    private final LowStockIndex lowStockIndex;
+    private final DistributionSummary batchSizes;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final BlockingQueue<Adjustment> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public StockAdjustmentServiceImpl(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      StockReservationService stockReservationService,
+                                      CatalogCache catalogCache,
+                                      LowStockIndex lowStockIndex,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${orderflow.inventory.adjustments.window-ms:5}") long windowMillis,
+                                      @Value("${orderflow.inventory.adjustments.max-batch:500}") int maxBatch,
+                                      @Value("${orderflow.inventory.adjustments.queue-capacity:10000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stockReservationService = stockReservationService;
+        this.catalogCache = catalogCache;
+        this.lowStockIndex = lowStockIndex;
+        this.batchSizes = DistributionSummary.builder("orderflow.stock.adjustments.batch")
+            .description("Stock adjustments applied per group commit")
+            .baseUnit("adjustments")
+            .register(meterRegistry);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::run, "stock-adjustments");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    /**
+     * Applies what is already queued, then fails anything that slipped in after
+     * the writer stopped.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        List<Adjustment> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        for (Adjustment adjustment : leftover) {
+            adjustment.result.completeExceptionally(
+                new RequestInProgressException("Stock adjustments are shutting down; try again later"));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Integer> adjustStock(Long productId, int quantity) {
+        Adjustment adjustment = new Adjustment(productId, quantity);
+        if (!running || !queue.offer(adjustment)) {
+            return CompletableFuture.failedFuture(
+                new RequestInProgressException("Too many stock adjustments queued; try again later"));
+        }
+        return adjustment.result;
+    }
+
+    @Override
+    public CompletableFuture<List<StockAdjustmentResult>> adjustStock(List<StockAdjustmentRequest> adjustments) {
+        List<CompletableFuture<StockAdjustmentResult>> results = new ArrayList<>(adjustments.size());
+        for (StockAdjustmentRequest request : adjustments) {
+            Long productId = request == null ? null : request.getProductId();
+            Integer quantity = request == null ? null : request.getQuantity();
+            if (productId == null || quantity == null) {
+                results.add(CompletableFuture.completedFuture(
+                    StockAdjustmentResult.failed(productId, quantity, "Both productId and quantity are required")));
+                continue;
+            }
+            results.add(adjustStock(productId, quantity).handle((stock, ex) -> ex == null
+                ? StockAdjustmentResult.applied(productId, quantity, stock)
+                : StockAdjustmentResult.failed(productId, quantity, unwrap(ex).getMessage())));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+            .thenApply(done -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    private void run() {
+        List<Adjustment> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Adjustment first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || remaining <= 0) {
+                        break;
+                    }
+                    Adjustment next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                apply(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void apply(List<Adjustment> batch) {
+        Map<Long, List<Adjustment>> byProduct = new TreeMap<>();
+        for (Adjustment adjustment : batch) {
+            byProduct.computeIfAbsent(adjustment.productId, id -> new ArrayList<>()).add(adjustment);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(byProduct));
+        } catch (RuntimeException e) {
+            log.error("Stock adjustment batch of {} failed", batch.size(), e);
+            for (Adjustment adjustment : batch) {
+                adjustment.result.completeExceptionally(e);
+            }
+            return;
+        }
+        batchSizes.record(batch.size());
+        for (Adjustment adjustment : batch) {
+            if (adjustment.rejection != null) {
+                adjustment.result.completeExceptionally(adjustment.rejection);
+            } else {
+                adjustment.result.complete(adjustment.quantityInStock);
+            }
+        }
+    }
+
+    private void write(Map<Long, List<Adjustment>> byProduct) {
+        Map<Long, LockedProduct> products = lock(byProduct.keySet());
+        Map<Long, Integer> available = stockReservationService.getAvailableStock(products.keySet());
+
+        Map<Long, Integer> netDeltas = new TreeMap<>();
+        byProduct.forEach((productId, adjustments) -> {
+            LockedProduct product = products.get(productId);
+            Integer productAvailable = available.get(productId);
+            if (product == null || productAvailable == null) {
+                ResourceNotFoundException notFound = new ResourceNotFoundException("Product", "id", productId);
+                adjustments.forEach(adjustment -> adjustment.rejection = notFound);
+                return;
+            }
+            long stock = product.quantityInStock;
+            long free = productAvailable;
+            for (Adjustment adjustment : adjustments) {
+                int quantity = adjustment.quantity;
+                if (quantity < 0 && free < -(long) quantity) {
+                    adjustment.rejection = new InsufficientStockException("Insufficient stock for product: " + product.name);
+                } else if (stock + quantity > Integer.MAX_VALUE) {
+                    adjustment.rejection = new BadRequestException("Stock for product " + product.name + " would overflow");
+                } else {
+                    stock += quantity;
+                    free += quantity;
+                    adjustment.quantityInStock = (int) stock;
+                }
+            }
+            if (stock != product.quantityInStock) {
+                netDeltas.put(productId, (int) (stock - product.quantityInStock));
+            }
+        });
+        if (netDeltas.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder("UPDATE products SET quantity_in_stock = quantity_in_stock + CASE id");
+        List<Object> parameters = new ArrayList<>(netDeltas.size() * 3 + 1);
+        netDeltas.forEach((productId, delta) -> {
+            sql.append(" WHEN ? THEN ?");
+            parameters.add(productId);
+            parameters.add(delta);
+        });
+        sql.append(" END, version = version + 1, updated_at = ? WHERE id IN (")
+            .append("?, ".repeat(netDeltas.size() - 1)).append("?)");
+        parameters.add(LocalDateTime.now());
+        parameters.addAll(netDeltas.keySet());
+        jdbcTemplate.update(sql.toString(), parameters.toArray());
+
+        List<Long> changed = List.copyOf(netDeltas.keySet());
+        stockReservationService.invalidateAll(changed);
+        catalogCache.invalidateProducts(changed);
+        lowStockIndex.stockChanged(changed);
+    }
+
+    // Locks in id order, so two writers locking overlapping products cannot deadlock
+    private Map<Long, LockedProduct> lock(Iterable<Long> ids) {
+        List<Object> parameters = new ArrayList<>();
+        ids.forEach(parameters::add);
+        String sql = "SELECT id, name, quantity_in_stock FROM products WHERE id IN ("
+            + "?, ".repeat(parameters.size() - 1) + "?) ORDER BY id FOR UPDATE";
+        Map<Long, LockedProduct> products = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            products.put(rs.getLong(1), new LockedProduct(rs.getString(2), rs.getInt(3)));
+        }, parameters.toArray());
+        return products;
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private static final class Adjustment {
+        final Long productId;
+        final int quantity;
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+        // Set by the writer inside the transaction, read after it commits
+        int quantityInStock;
+        RuntimeException rejection;
+
+        Adjustment(Long productId, int quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+
+    private static final class LockedProduct {
+        final String name;
+        final int quantityInStock;
+
+        LockedProduct(String name, int quantityInStock) {
+            this.name = name;
+            this.quantityInStock = quantityInStock;
+        }
+    }
+}
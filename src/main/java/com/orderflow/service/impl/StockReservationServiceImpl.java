@@ -0,0 +1,84 @@
+package com.orderflow.service.impl;
+
+import com.orderflow.exception.ResourceNotFoundException;
+import com.orderflow.inventory.LowStockIndex;
+import com.orderflow.repository.ProductRepository;
+import com.orderflow.service.StockReservationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Default implementation: every operation is one guarded UPDATE on the products table.
+ */
+@Service
+@Transactional
+@ConditionalOnProperty(name = "orderflow.inventory.ledger.enabled", havingValue = "false", matchIfMissing = true)
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final LowStockIndex lowStockIndex;
+
+    @Autowired
+    public StockReservationServiceImpl(ProductRepository productRepository, LowStockIndex lowStockIndex) {
+        this.productRepository = productRepository;
+        this.lowStockIndex = lowStockIndex;
+    }
+
+    @Override
+    public boolean reserveStock(Long productId, int quantity) {
+        if (productRepository.reserveStock(productId, quantity) == 0) {
+            return false;
+        }
+        lowStockIndex.stockChanged(productId);
+        return true;
+    }
+
+    @Override
+    public void releaseReservedStock(Long productId, int quantity) {
+        productRepository.releaseReservedStock(productId, quantity);
+        lowStockIndex.stockChanged(productId);
+    }
+
+    @Override
+    public boolean reduceStock(Long productId, int quantity) {
+        if (productRepository.reduceStock(productId, quantity) == 0) {
+            return false;
+        }
+        lowStockIndex.stockChanged(productId);
+        return true;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getAvailableStock(Long productId) {
+        return productRepository.findById(productId)
+            .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId))
+            .getAvailableStock();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getAvailableStock(Collection<Long> productIds) {
+        Map<Long, Integer> available = new HashMap<>();
+        for (ProductRepository.StockState state : productRepository.findStockStates(productIds)) {
+            available.put(state.getId(), state.getQuantityInStock() - state.getReservedQuantity());
+        }
+        return available;
+    }
+
+    @Override
+    public void invalidate(Long productId) {
+        // Nothing cached
+    }
+
+    @Override
+    public void invalidateAll(Collection<Long> productIds) {
+        // Nothing cached
+    }
+}
@@ -0,0 +1,66 @@
+package com.orderflow.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearCacheTest {
+
+    private static final long TTL = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    void weightMatchesEntriesUnderSkewedLoad() {
+        NearCache<Integer, String> cache = new NearCache<>("test", 1000, 1000, TTL, value -> 10);
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(10) < 8 ? random.nextInt(50) : random.nextInt(100_000);
+            cache.get(key, String::valueOf);
+            assertEquals(cache.size() * 10L, cache.weight());
+            assertTrue(cache.weight() <= 1000, "weight " + cache.weight() + " over the maximum");
+        }
+    }
+
+    @Test
+    void everyLoadedEntryIsEitherCachedOrEvictedOnce() {
+        NearCache<Integer, String> cache = new NearCache<>("test", 1000, 1000, TTL, String::length);
+        Function<Integer, String> loader = key -> "x".repeat(1 + key % 300);
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            // A small hot set keeps entries moving through the protected segment
+            int key = random.nextInt(4) == 0 ? random.nextInt(20) : random.nextInt(50_000);
+            cache.get(key, loader);
+            assertEquals(cache.missCount(), cache.size() + cache.evictionCount());
+            assertTrue(cache.weight() <= 1000, "weight " + cache.weight() + " over the maximum");
+        }
+    }
+
+    @Test
+    void staysBoundedWithVariableWeights() {
+        NearCache<Integer, String> cache = new NearCache<>("test", 1000, 1000, TTL, String::length);
+        Function<Integer, String> loader = key -> "x".repeat(1 + key % 40);
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextBoolean() ? random.nextInt(30) : random.nextInt(50_000);
+            cache.get(key, loader);
+            if (i % 97 == 0) {
+                cache.invalidate(random.nextInt(30));
+            }
+            assertTrue(cache.weight() >= 0 && cache.weight() <= 1000, "weight " + cache.weight());
+        }
+    }
+
+    @Test
+    void invalidatedEntryIsLoadedAgain() {
+        NearCache<Integer, String> cache = new NearCache<>("test", 100, 100, TTL, value -> 1);
+        cache.get(1, key -> "a");
+        cache.invalidate(1);
+        assertEquals("b", cache.get(1, key -> "b"));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.weight());
+    }
+}